@@ -13,7 +13,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.DefaultProfileUtil;
 import tech.jhipster.config.JHipsterConstants;
@@ -24,6 +26,8 @@ public class MyskoolApp {
 
     private static final Logger log = LoggerFactory.getLogger(MyskoolApp.class);
 
+    private static final int STARTUP_STEPS_CAPACITY = 10000;
+
     private final Environment env;
 
     public MyskoolApp(Environment env) {
@@ -60,13 +64,22 @@ public class MyskoolApp {
 
     /**
      * Main method, used to run the application.
+     * <p>
+     * With the {@code migrate} profile, the application applies the Liquibase changelog and exits.
      *
      * @param args the command line arguments.
      */
     public static void main(String[] args) {
         SpringApplication app = new SpringApplication(MyskoolApp.class);
         DefaultProfileUtil.addDefaultProfile(app);
-        Environment env = app.run(args).getEnvironment();
+        // Records the startup steps for the /management/startup and /management/startupreport endpoints
+        app.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        ConfigurableApplicationContext context = app.run(args);
+        if (context.getBean(ApplicationProperties.class).getLiquibase().getMode() == ApplicationProperties.Liquibase.Mode.MIGRATE_ONLY) {
+            log.info("Database migrated, exiting");
+            System.exit(SpringApplication.exit(context));
+        }
+        Environment env = context.getEnvironment();
         logApplicationStartup(env);
     }
 
@@ -0,0 +1,23 @@
+package io.myskool.aop.jfr;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method mutating users, recorded as a {@link io.myskool.config.jfr.UserMutationEvent} by the
+ * {@link UserMutationEventAspect}.
+ * <p>
+ * Like any Spring aspect, it only applies to the calls going through the proxy of the bean.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UserMutation {
+    /**
+     * @return the name of the operation, the name of the method by default.
+     */
+    String value() default "";
+}
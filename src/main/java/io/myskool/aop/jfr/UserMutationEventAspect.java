@@ -0,0 +1,32 @@
+package io.myskool.aop.jfr;
+
+import io.myskool.config.jfr.UserMutationEvent;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Aspect recording a {@link UserMutationEvent} around the methods annotated with {@link UserMutation}.
+ */
+@Aspect
+public class UserMutationEventAspect {
+
+    /**
+     * Advice that records the event of a user mutation, whether it returns or throws.
+     *
+     * @param joinPoint join point for advice.
+     * @param userMutation the annotation of the method.
+     * @return result.
+     * @throws Throwable rethrows the exception of the method.
+     */
+    @Around("@annotation(userMutation)")
+    public Object recordAround(ProceedingJoinPoint joinPoint, UserMutation userMutation) throws Throwable {
+        String operation = userMutation.value().isEmpty() ? joinPoint.getSignature().getName() : userMutation.value();
+        UserMutationEvent event = UserMutationEvent.start(operation);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            event.commit();
+        }
+    }
+}
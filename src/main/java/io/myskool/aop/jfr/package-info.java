@@ -0,0 +1,4 @@
+/**
+ * Java Flight Recorder events aspect.
+ */
+package io.myskool.aop.jfr;
@@ -0,0 +1,135 @@
+package io.myskool.aop.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/**
+ * Aspect timing the execution of service and Web REST methods with Micrometer.
+ * <p>
+ * Unlike the {@link io.myskool.aop.logging.LoggingAspect}, it leaves the repositories out: they are called by the
+ * services, whose timers already cover them, and intercepting every repository call would multiply the cost and the
+ * series. The timers of each method are looked up once and cached, and no log message nor argument string is built.
+ * Each call records to the {@value #METRIC_NAME} timer, tagged with the class, the method, and whether it returned or
+ * threw, the number of distinct values of these tags being bounded by the
+ * {@link io.myskool.config.metrics.MetricsPolicyMeterFilter}.
+ * <p>
+ * With a sample rate below 1, only this fraction of the calls is timed: the latencies stay representative, but the
+ * counts must be divided by the sample rate.
+ */
+@Aspect
+public class MethodTimingAspect {
+
+    public static final String METRIC_NAME = "myskool.method";
+
+    private final MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+
+    private final ConcurrentMap<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingAspect(MeterRegistry meterRegistry, double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Pointcut that matches all services and Web REST endpoints.
+     */
+    @Pointcut("within(@org.springframework.stereotype.Service *)" + " || within(@org.springframework.web.bind.annotation.RestController *)")
+    public void springBeanPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring beans in the application's main packages.
+     */
+    @Pointcut("within(io.myskool.service..*)" + " || within(io.myskool.web.rest..*)")
+    public void applicationPackagePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times a sample of the method executions.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable rethrows the exception of the method.
+     */
+    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!sampled()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timers(joinPoint).success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timers(joinPoint).error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private MethodTimers timers(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodTimers methodTimers = timers.get(signature.getMethod());
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(signature.getMethod(), method -> new MethodTimers(signature.getDeclaringType(), method));
+        }
+        return methodTimers;
+    }
+
+    /**
+     * The timers of a method, the error one being only registered once the method has thrown.
+     */
+    private final class MethodTimers {
+
+        private final String className;
+
+        private final String methodName;
+
+        private final Timer success;
+
+        private volatile Timer error;
+
+        private MethodTimers(Class<?> declaringType, Method method) {
+            this.className = declaringType.getSimpleName();
+            this.methodName = method.getName();
+            this.success = timer("success");
+        }
+
+        private Timer error() {
+            Timer timer = error;
+            if (timer == null) {
+                timer = timer("error");
+                error = timer;
+            }
+            return timer;
+        }
+
+        private Timer timer(String outcome) {
+            return Timer
+                .builder(METRIC_NAME)
+                .description("Execution time of the service and Web REST methods")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+}
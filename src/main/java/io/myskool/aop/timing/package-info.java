@@ -0,0 +1,4 @@
+/**
+ * Method timing aspect.
+ */
+package io.myskool.aop.timing;
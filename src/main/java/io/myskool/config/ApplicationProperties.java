@@ -1,6 +1,13 @@
 package io.myskool.config;
 
+import io.myskool.security.RoutePatterns;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Myskool.
@@ -9,4 +16,1053 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Datasource datasource = new Datasource();
+
+    private final SqlMetrics sqlMetrics = new SqlMetrics();
+
+    private final Mail mail = new Mail();
+
+    private final MethodTiming methodTiming = new MethodTiming();
+
+    private final Jfr jfr = new Jfr();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Health health = new Health();
+
+    private final WarmUp warmUp = new WarmUp();
+
+    private final Liquibase liquibase = new Liquibase();
+
+    private final Errors errors = new Errors();
+
+    private final Jackson jackson = new Jackson();
+
+    private final Batch batch = new Batch();
+
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private final Bulkhead bulkhead = new Bulkhead();
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public SqlMetrics getSqlMetrics() {
+        return sqlMetrics;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
+
+    public Jfr getJfr() {
+        return jfr;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Health getHealth() {
+        return health;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public Liquibase getLiquibase() {
+        return liquibase;
+    }
+
+    public Errors getErrors() {
+        return errors;
+    }
+
+    public Jackson getJackson() {
+        return jackson;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public static class Datasource {
+
+        private final Replica replica = new Replica();
+
+        public Replica getReplica() {
+            return replica;
+        }
+
+        /**
+         * Read replica used for {@code @Transactional(readOnly = true)} work.
+         */
+        public static class Replica {
+
+            private boolean enabled = false;
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            private String poolName = "HikariReplica";
+
+            private int maximumPoolSize = 10;
+
+            private Duration connectionTimeout = Duration.ofSeconds(5);
+
+            /**
+             * Query returning the replica lag in seconds, or {@code null} to only check that the replica is reachable.
+             */
+            private String lagQuery;
+
+            private Duration maxLag = Duration.ofSeconds(10);
+
+            private Duration checkInterval = Duration.ofSeconds(5);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public String getPoolName() {
+                return poolName;
+            }
+
+            public void setPoolName(String poolName) {
+                this.poolName = poolName;
+            }
+
+            public int getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(int maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+
+            public Duration getConnectionTimeout() {
+                return connectionTimeout;
+            }
+
+            public void setConnectionTimeout(Duration connectionTimeout) {
+                this.connectionTimeout = connectionTimeout;
+            }
+
+            public String getLagQuery() {
+                return lagQuery;
+            }
+
+            public void setLagQuery(String lagQuery) {
+                this.lagQuery = lagQuery;
+            }
+
+            public Duration getMaxLag() {
+                return maxLag;
+            }
+
+            public void setMaxLag(Duration maxLag) {
+                this.maxLag = maxLag;
+            }
+
+            public Duration getCheckInterval() {
+                return checkInterval;
+            }
+
+            public void setCheckInterval(Duration checkInterval) {
+                this.checkInterval = checkInterval;
+            }
+        }
+    }
+
+    /**
+     * Per-request count of the SQL statements executed for {@code /api} requests.
+     */
+    public static class SqlMetrics {
+
+        private boolean enabled = true;
+
+        private boolean responseHeader = false;
+
+        private int warnThreshold = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isResponseHeader() {
+            return responseHeader;
+        }
+
+        public void setResponseHeader(boolean responseHeader) {
+            this.responseHeader = responseHeader;
+        }
+
+        public int getWarnThreshold() {
+            return warnThreshold;
+        }
+
+        public void setWarnThreshold(int warnThreshold) {
+            this.warnThreshold = warnThreshold;
+        }
+    }
+
+    public static class Mail {
+
+        private final Outbox outbox = new Outbox();
+
+        private final Pool pool = new Pool();
+
+        private final Executor renderExecutor = new Executor(Runtime.getRuntime().availableProcessors(), 20, Duration.ZERO);
+
+        private final Executor transportExecutor = new Executor(4, 8, Duration.ofSeconds(30));
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public Pool getPool() {
+            return pool;
+        }
+
+        /**
+         * @return the executor rendering the outbox batches, sized for CPU-bound work.
+         */
+        public Executor getRenderExecutor() {
+            return renderExecutor;
+        }
+
+        /**
+         * @return the executor sending the outbox batches, sized for the SMTP connections.
+         */
+        public Executor getTransportExecutor() {
+            return transportExecutor;
+        }
+
+        /**
+         * Executor of a stage of the outbox dispatch, separate from the {@code @Async} one.
+         */
+        public static class Executor {
+
+            private int poolSize;
+
+            /**
+             * Batches waiting for a thread.
+             */
+            private int queueCapacity;
+
+            /**
+             * How long a full queue blocks the previous stage before the batch is rejected.
+             */
+            private Duration submitTimeout;
+
+            private Duration keepAlive = Duration.ofSeconds(60);
+
+            public Executor(int poolSize, int queueCapacity, Duration submitTimeout) {
+                this.poolSize = poolSize;
+                this.queueCapacity = queueCapacity;
+                this.submitTimeout = submitTimeout;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getSubmitTimeout() {
+                return submitTimeout;
+            }
+
+            public void setSubmitTimeout(Duration submitTimeout) {
+                this.submitTimeout = submitTimeout;
+            }
+
+            public Duration getKeepAlive() {
+                return keepAlive;
+            }
+
+            public void setKeepAlive(Duration keepAlive) {
+                this.keepAlive = keepAlive;
+            }
+        }
+
+        /**
+         * SMTP connections kept open between sends.
+         */
+        public static class Pool {
+
+            private boolean enabled = true;
+
+            private int size = 4;
+
+            /**
+             * How long an idle connection is kept open, which should stay below the SMTP server's own timeout.
+             */
+            private Duration idleTimeout = Duration.ofSeconds(30);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getSize() {
+                return size;
+            }
+
+            public void setSize(int size) {
+                this.size = size;
+            }
+
+            public Duration getIdleTimeout() {
+                return idleTimeout;
+            }
+
+            public void setIdleTimeout(Duration idleTimeout) {
+                this.idleTimeout = idleTimeout;
+            }
+        }
+
+        /**
+         * Dispatch of the emails written to the outbox table.
+         */
+        public static class Outbox {
+
+            private boolean pollingEnabled = true;
+
+            private Duration pollInterval = Duration.ofSeconds(1);
+
+            private int batchSize = 50;
+
+            /**
+             * How long claimed messages are hidden from other dispatchers, before being retried if never acknowledged.
+             */
+            private Duration lease = Duration.ofMinutes(5);
+
+            private int maxAttempts = 8;
+
+            private Duration initialBackoff = Duration.ofSeconds(30);
+
+            private Duration maxBackoff = Duration.ofHours(1);
+
+            public boolean isPollingEnabled() {
+                return pollingEnabled;
+            }
+
+            public void setPollingEnabled(boolean pollingEnabled) {
+                this.pollingEnabled = pollingEnabled;
+            }
+
+            public Duration getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(Duration pollInterval) {
+                this.pollInterval = pollInterval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getLease() {
+                return lease;
+            }
+
+            public void setLease(Duration lease) {
+                this.lease = lease;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public Duration getInitialBackoff() {
+                return initialBackoff;
+            }
+
+            public void setInitialBackoff(Duration initialBackoff) {
+                this.initialBackoff = initialBackoff;
+            }
+
+            public Duration getMaxBackoff() {
+                return maxBackoff;
+            }
+
+            public void setMaxBackoff(Duration maxBackoff) {
+                this.maxBackoff = maxBackoff;
+            }
+        }
+    }
+
+    /**
+     * Micrometer timers of the service and Web REST methods, replacing the debug logging aspect.
+     */
+    public static class MethodTiming {
+
+        private boolean enabled = false;
+
+        /**
+         * Fraction of the calls that are timed, between 0 and 1.
+         */
+        private double sampleRate = 1.0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    /**
+     * Java Flight Recorder recordings started from the {@code /management/jfr} endpoint.
+     */
+    public static class Jfr {
+
+        /**
+         * JFR configurations a recording may use, by name or path of a {@code .jfc} file.
+         */
+        private List<String> allowedSettings = new ArrayList<>(List.of("default", "profile"));
+
+        private String defaultSettings = "default";
+
+        private Duration defaultDuration = Duration.ofMinutes(1);
+
+        private Duration maxDuration = Duration.ofMinutes(10);
+
+        private DataSize maxSize = DataSize.ofMegabytes(100);
+
+        /**
+         * Recordings kept, running or stopped, until deleted.
+         */
+        private int maxRecordings = 3;
+
+        public List<String> getAllowedSettings() {
+            return allowedSettings;
+        }
+
+        public void setAllowedSettings(List<String> allowedSettings) {
+            this.allowedSettings = allowedSettings;
+        }
+
+        public String getDefaultSettings() {
+            return defaultSettings;
+        }
+
+        public void setDefaultSettings(String defaultSettings) {
+            this.defaultSettings = defaultSettings;
+        }
+
+        public Duration getDefaultDuration() {
+            return defaultDuration;
+        }
+
+        public void setDefaultDuration(Duration defaultDuration) {
+            this.defaultDuration = defaultDuration;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMaxRecordings() {
+            return maxRecordings;
+        }
+
+        public void setMaxRecordings(int maxRecordings) {
+            this.maxRecordings = maxRecordings;
+        }
+    }
+
+    /**
+     * Bounds of the series exported for each meter.
+     */
+    public static class Metrics {
+
+        /**
+         * Prefixes of the names of the meters publishing a percentiles histogram and client-side percentiles.
+         */
+        private List<String> histogramPrefixes = new ArrayList<>(List.of("http.server.requests", "myskool.jwt", "hikaricp.connections"));
+
+        private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99));
+
+        /**
+         * Distinct values of each tag of a meter, the next ones being replaced with {@code OTHER}.
+         */
+        private int maxTagValues = 100;
+
+        /**
+         * Distinct values of each tag of the given meters, overriding {@code maxTagValues}, a negative value leaving
+         * their tags unbounded.
+         */
+        private Map<String, Integer> maxTagValuesByMeter = new HashMap<>(Map.of("myskool.method", -1));
+
+        public List<String> getHistogramPrefixes() {
+            return histogramPrefixes;
+        }
+
+        public void setHistogramPrefixes(List<String> histogramPrefixes) {
+            this.histogramPrefixes = histogramPrefixes;
+        }
+
+        public List<Double> getPercentiles() {
+            return percentiles;
+        }
+
+        public void setPercentiles(List<Double> percentiles) {
+            this.percentiles = percentiles;
+        }
+
+        public int getMaxTagValues() {
+            return maxTagValues;
+        }
+
+        public void setMaxTagValues(int maxTagValues) {
+            this.maxTagValues = maxTagValues;
+        }
+
+        public Map<String, Integer> getMaxTagValuesByMeter() {
+            return maxTagValuesByMeter;
+        }
+
+        public void setMaxTagValuesByMeter(Map<String, Integer> maxTagValuesByMeter) {
+            this.maxTagValuesByMeter = maxTagValuesByMeter;
+        }
+    }
+
+    /**
+     * Health contributors checked in the background, their last result being served to the probes.
+     */
+    public static class Health {
+
+        /**
+         * Names of the cached contributors, such as {@code db}.
+         */
+        private List<String> cachedContributors = new ArrayList<>(List.of("db", "mail", "cache"));
+
+        private Duration refreshInterval = Duration.ofSeconds(10);
+
+        /**
+         * Age after which a result is reported as down, because its refresh is stuck or failing.
+         */
+        private Duration maxStaleness = Duration.ofSeconds(30);
+
+        public List<String> getCachedContributors() {
+            return cachedContributors;
+        }
+
+        public void setCachedContributors(List<String> cachedContributors) {
+            this.cachedContributors = cachedContributors;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+    }
+
+    /**
+     * Warm-up run once the application is started, before it accepts traffic.
+     */
+    public static class WarmUp {
+
+        private boolean enabled = true;
+
+        /**
+         * Repetitions of the work of each step.
+         */
+        private int iterations = 200;
+
+        /**
+         * Maximum time of the whole warm-up, after which the application accepts traffic anyway.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * How the application applies the Liquibase changelog.
+     */
+    public static class Liquibase {
+
+        private Mode mode = Mode.UPDATE;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public enum Mode {
+            /**
+             * Applies the changelog at startup, then serves.
+             */
+            UPDATE,
+            /**
+             * Applies the changelog, then exits.
+             */
+            MIGRATE_ONLY,
+            /**
+             * Does not run Liquibase, only checks that the changelog was applied, then serves.
+             */
+            VERIFY,
+        }
+    }
+
+    /**
+     * Handling of the expected business errors.
+     */
+    public static class Errors {
+
+        private boolean stackTraces = false;
+
+        public boolean isStackTraces() {
+            return stackTraces;
+        }
+
+        public void setStackTraces(boolean stackTraces) {
+            this.stackTraces = stackTraces;
+        }
+    }
+
+    /**
+     * JSON serialization of the REST responses.
+     */
+    public static class Jackson {
+
+        private boolean afterburner = false;
+
+        public boolean isAfterburner() {
+            return afterburner;
+        }
+
+        public void setAfterburner(boolean afterburner) {
+            this.afterburner = afterburner;
+        }
+    }
+
+    /**
+     * Batches of operations on users, sent to {@code /api/admin/batch}.
+     */
+    public static class Batch {
+
+        private int chunkSize = 50;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Adaptive limits of the concurrent {@code /api} requests, above which they are shed with a 503.
+     */
+    public static class ConcurrencyLimit {
+
+        private boolean enabled = true;
+
+        /**
+         * Weight, between 0 and 1, of each new estimate of a limit.
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Ratio of the latency to its long term average below which a limit grows.
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * Requests over which the long term average latency is computed.
+         */
+        private int longWindow = 600;
+
+        private final Limit admin = new Limit(5, 2, 20);
+
+        private final Limit authenticate = new Limit(10, 4, 50);
+
+        private final Limit api = new Limit(20, 10, 200);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(int longWindow) {
+            this.longWindow = longWindow;
+        }
+
+        public Limit getAdmin() {
+            return admin;
+        }
+
+        public Limit getAuthenticate() {
+            return authenticate;
+        }
+
+        public Limit getApi() {
+            return api;
+        }
+
+        public static class Limit {
+
+            private int initialLimit;
+
+            private int minLimit;
+
+            private int maxLimit;
+
+            public Limit(int initialLimit, int minLimit, int maxLimit) {
+                this.initialLimit = initialLimit;
+                this.minLimit = minLimit;
+                this.maxLimit = maxLimit;
+            }
+
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+
+            public int getMinLimit() {
+                return minLimit;
+            }
+
+            public void setMinLimit(int minLimit) {
+                this.minLimit = minLimit;
+            }
+
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+        }
+    }
+
+    /**
+     * Fixed limits of the concurrent {@code /api} requests of each group of paths, so that no group holds all the
+     * worker threads, and an optional connection pool of their own for some groups.
+     * <p>
+     * The limits default to a share of the Undertow worker threads, the shares of the groups adding up to less than
+     * all of them so that the requests outside of {@code /api} keep some threads too.
+     */
+    public static class Bulkhead {
+
+        private boolean enabled = true;
+
+        private final Group admin = new Group(List.of(RoutePatterns.ADMIN), 0.0625);
+
+        private final Group authenticate = new Group(List.of(RoutePatterns.AUTHENTICATE), 0.125);
+
+        private final Group account = new Group(List.of(RoutePatterns.ACCOUNT, RoutePatterns.REGISTER, RoutePatterns.ACTIVATE), 0.125);
+
+        /**
+         * The other requests.
+         */
+        private final Group api = new Group(List.of(), 0.5);
+
+        private final Pool pool = new Pool();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Group getAdmin() {
+            return admin;
+        }
+
+        public Group getAuthenticate() {
+            return authenticate;
+        }
+
+        public Group getAccount() {
+            return account;
+        }
+
+        public Group getApi() {
+            return api;
+        }
+
+        public Pool getPool() {
+            return pool;
+        }
+
+        public static class Group {
+
+            /**
+             * Ant patterns of the paths of the group, matched like the ones of the {@code SecurityConfiguration}.
+             */
+            private List<String> patterns;
+
+            /**
+             * Share of the Undertow worker threads the requests of the group can hold, when max-concurrent is not set.
+             */
+            private double workerShare;
+
+            /**
+             * Maximum number of concurrent requests of the group, which must be below the number of Undertow worker threads.
+             */
+            private Integer maxConcurrent;
+
+            /**
+             * Time a request waits for a permit before being rejected, not waiting when zero.
+             */
+            private Duration maxWait = Duration.ZERO;
+
+            public Group(List<String> patterns, double workerShare) {
+                this.patterns = new ArrayList<>(patterns);
+                this.workerShare = workerShare;
+            }
+
+            public List<String> getPatterns() {
+                return patterns;
+            }
+
+            public void setPatterns(List<String> patterns) {
+                this.patterns = patterns;
+            }
+
+            public double getWorkerShare() {
+                return workerShare;
+            }
+
+            public void setWorkerShare(double workerShare) {
+                this.workerShare = workerShare;
+            }
+
+            public Integer getMaxConcurrent() {
+                return maxConcurrent;
+            }
+
+            public void setMaxConcurrent(Integer maxConcurrent) {
+                this.maxConcurrent = maxConcurrent;
+            }
+
+            public Duration getMaxWait() {
+                return maxWait;
+            }
+
+            public void setMaxWait(Duration maxWait) {
+                this.maxWait = maxWait;
+            }
+        }
+
+        /**
+         * Connection pool of the requests of some groups, connecting to the {@code spring.datasource} database.
+         */
+        public static class Pool {
+
+            private boolean enabled = false;
+
+            private List<String> groups = new ArrayList<>(List.of("admin"));
+
+            private String poolName = "HikariBulkhead";
+
+            private int maximumPoolSize = 4;
+
+            private Duration connectionTimeout = Duration.ofSeconds(5);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public List<String> getGroups() {
+                return groups;
+            }
+
+            public void setGroups(List<String> groups) {
+                this.groups = groups;
+            }
+
+            public String getPoolName() {
+                return poolName;
+            }
+
+            public void setPoolName(String poolName) {
+                this.poolName = poolName;
+            }
+
+            public int getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(int maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+
+            public Duration getConnectionTimeout() {
+                return connectionTimeout;
+            }
+
+            public void setConnectionTimeout(Duration connectionTimeout) {
+                this.connectionTimeout = connectionTimeout;
+            }
+        }
+    }
+}
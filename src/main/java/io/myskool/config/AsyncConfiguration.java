@@ -1,6 +1,13 @@
 package io.myskool.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
@@ -39,6 +46,89 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor of the render stage of the mail outbox, so that mail neither waits behind nor delays the
+     * {@code @Async} work.
+     */
+    @Bean(name = "mailRenderExecutor")
+    public ThreadPoolTaskExecutor mailRenderExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        log.debug("Creating Mail Render Executor");
+        return createMailExecutor("render", applicationProperties.getMail().getRenderExecutor(), meterRegistry);
+    }
+
+    /**
+     * Executor of the transport stage of the mail outbox, whose bounded queue connects it to the render stage.
+     */
+    @Bean(name = "mailTransportExecutor")
+    public ThreadPoolTaskExecutor mailTransportExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        log.debug("Creating Mail Transport Executor");
+        return createMailExecutor("transport", applicationProperties.getMail().getTransportExecutor(), meterRegistry);
+    }
+
+    /**
+     * Creates an executor whose core size is its maximum size, so that threads are started before tasks are queued,
+     * and whose queue is bounded: when it is full, submitting blocks up to the submit timeout, then the task is
+     * rejected and its emails are left in the outbox until the next poll.
+     */
+    private ThreadPoolTaskExecutor createMailExecutor(
+        String stage,
+        ApplicationProperties.Mail.Executor properties,
+        MeterRegistry meterRegistry
+    ) {
+        Tags tags = Tags.of("name", "mail." + stage);
+        Timer idleTimer = Timer.builder("executor.idle").description("Time tasks waited in the queue").tags(tags).register(meterRegistry);
+        Timer executionTimer = Timer.builder("executor").description("Time tasks took to run").tags(tags).register(meterRegistry);
+        Counter rejectedCounter = Counter
+            .builder("executor.rejected")
+            .description("Tasks rejected by a full queue")
+            .tags(tags)
+            .register(meterRegistry);
+        long submitTimeoutMillis = properties.getSubmitTimeout().toMillis();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds((int) properties.getKeepAlive().getSeconds());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("myskool-mail-" + stage + "-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setTaskDecorator(
+            task -> {
+                long queuedAt = System.nanoTime();
+                return () -> {
+                    long startedAt = System.nanoTime();
+                    idleTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        task.run();
+                    } finally {
+                        executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                };
+            }
+        );
+        executor.setRejectedExecutionHandler(
+            (task, threadPoolExecutor) -> {
+                try {
+                    if (
+                        submitTimeoutMillis > 0 &&
+                        !threadPoolExecutor.isShutdown() &&
+                        threadPoolExecutor.getQueue().offer(task, submitTimeoutMillis, TimeUnit.MILLISECONDS)
+                    ) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                rejectedCounter.increment();
+                throw new RejectedExecutionException("Mail " + stage + " executor queue is full");
+            }
+        );
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "mail." + stage, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
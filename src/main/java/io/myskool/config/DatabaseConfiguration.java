@@ -1,9 +1,24 @@
 package io.myskool.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.myskool.config.datasource.BulkheadRoutingDataSource;
+import io.myskool.config.datasource.LazyRoutingDataSource;
+import io.myskool.config.datasource.ReplicaRoutingDataSource;
 import java.sql.SQLException;
+import java.util.HashSet;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
@@ -54,4 +69,105 @@ public class DatabaseConfiguration {
         }
         return String.valueOf(port);
     }
+
+    /**
+     * Routes {@code @Transactional(readOnly = true)} work to a read replica when
+     * {@code application.datasource.replica.enabled} is set, and the requests of the bulkhead groups of
+     * {@code application.bulkhead.pool.groups} to a pool of their own when {@code application.bulkhead.pool.enabled}
+     * is set, everything else goes to the primary configured with the standard {@code spring.datasource} properties.
+     * <p>
+     * With both enabled, the replica takes precedence: the read-only work of the bulkhead groups goes to the replica,
+     * and only their read-write work to their own pool.
+     * <p>
+     * The pools are created here rather than exposed as beans, so that the routing {@link DataSource}
+     * stays the only one seen by JPA, Liquibase and the health checks. It is wrapped in a
+     * {@link LazyRoutingDataSource}, so that the routing happens once the transaction is started.
+     */
+    @Configuration
+    @Conditional(RoutingDataSourceConfiguration.RoutingCondition.class)
+    static class RoutingDataSourceConfiguration {
+
+        private final Logger log = LoggerFactory.getLogger(RoutingDataSourceConfiguration.class);
+
+        @Bean
+        public DataSource dataSource(
+            Environment env,
+            DataSourceProperties dataSourceProperties,
+            ApplicationProperties applicationProperties,
+            ObjectProvider<MeterRegistry> meterRegistry
+        ) {
+            HikariDataSource primary = primaryPool(env, dataSourceProperties);
+            DataSource dataSource = primary;
+
+            ApplicationProperties.Bulkhead.Pool poolProperties = applicationProperties.getBulkhead().getPool();
+            if (poolProperties.isEnabled()) {
+                // Same database and settings as the primary, with its own connections
+                HikariDataSource pool = primaryPool(env, dataSourceProperties);
+                pool.setPoolName(poolProperties.getPoolName());
+                pool.setMaximumPoolSize(poolProperties.getMaximumPoolSize());
+                if (pool.getMinimumIdle() > poolProperties.getMaximumPoolSize()) {
+                    pool.setMinimumIdle(poolProperties.getMaximumPoolSize());
+                }
+                pool.setConnectionTimeout(poolProperties.getConnectionTimeout().toMillis());
+                meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+                log.debug("Routing the requests of the {} bulkhead groups to pool {}", poolProperties.getGroups(), pool.getPoolName());
+                BulkheadRoutingDataSource bulkheadRoutingDataSource = new BulkheadRoutingDataSource(
+                    primary,
+                    pool,
+                    new HashSet<>(poolProperties.getGroups())
+                );
+                bulkheadRoutingDataSource.afterPropertiesSet();
+                dataSource = bulkheadRoutingDataSource;
+            }
+
+            ApplicationProperties.Datasource.Replica properties = applicationProperties.getDatasource().getReplica();
+            if (properties.isEnabled()) {
+                HikariDataSource replica = new HikariDataSource();
+                replica.setJdbcUrl(properties.getUrl());
+                replica.setUsername(properties.getUsername());
+                replica.setPassword(properties.getPassword());
+                replica.setPoolName(properties.getPoolName());
+                replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+                replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+                // Hibernate relies on the pool to disable auto-commit, so both pools must agree
+                replica.setAutoCommit(primary.isAutoCommit());
+                replica.setReadOnly(true);
+                // The primary pool is instrumented by Spring Boot through the routing DataSource, the replica is not
+                meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+                log.debug("Routing read-only transactions to replica {}", properties.getUrl());
+                ReplicaRoutingDataSource replicaRoutingDataSource = new ReplicaRoutingDataSource(
+                    dataSource,
+                    replica,
+                    properties.getLagQuery(),
+                    properties.getMaxLag(),
+                    properties.getCheckInterval()
+                );
+                replicaRoutingDataSource.afterPropertiesSet();
+                dataSource = replicaRoutingDataSource;
+            }
+            // The routing DataSources are not beans, they are initialized above before the proxy gets a connection
+            return new LazyRoutingDataSource(dataSource);
+        }
+
+        private static HikariDataSource primaryPool(Environment env, DataSourceProperties dataSourceProperties) {
+            HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            Binder.get(env).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+            return primary;
+        }
+
+        static class RoutingCondition extends AnyNestedCondition {
+
+            RoutingCondition() {
+                super(ConfigurationPhase.REGISTER_BEAN);
+            }
+
+            @ConditionalOnProperty(prefix = "application.datasource.replica", name = "enabled", havingValue = "true")
+            static class ReplicaEnabled {}
+
+            @ConditionalOnProperty(prefix = "application.bulkhead.pool", name = "enabled", havingValue = "true")
+            static class BulkheadPoolEnabled {}
+        }
+    }
 }
@@ -0,0 +1,15 @@
+package io.myskool.config;
+
+import io.myskool.config.errors.BusinessExceptions;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the {@code application.errors} properties to the business exceptions, see {@link BusinessExceptions}.
+ */
+@Configuration
+public class ErrorsConfiguration {
+
+    public ErrorsConfiguration(ApplicationProperties applicationProperties) {
+        BusinessExceptions.setStackTraceEnabled(applicationProperties.getErrors().isStackTraces());
+    }
+}
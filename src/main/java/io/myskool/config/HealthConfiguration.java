@@ -0,0 +1,32 @@
+package io.myskool.config;
+
+import io.myskool.config.health.CacheHealthIndicator;
+import io.myskool.config.health.CachedHealthContributorPostProcessor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Serves the health of the data source, mail server and caches from results refreshed in the background, so that
+ * readiness probes never wait for a connection.
+ */
+@Configuration
+public class HealthConfiguration {
+
+    @Bean
+    public static CachedHealthContributorPostProcessor cachedHealthContributorPostProcessor(Environment environment) {
+        // Bound from the environment, as post-processors are created before the ApplicationProperties bean
+        ApplicationProperties.Health health = Binder
+            .get(environment)
+            .bind("application.health", ApplicationProperties.Health.class)
+            .orElseGet(ApplicationProperties.Health::new);
+        return new CachedHealthContributorPostProcessor(health);
+    }
+
+    @Bean
+    public HealthIndicator cacheHealthIndicator(javax.cache.CacheManager cacheManager) {
+        return new CacheHealthIndicator(cacheManager);
+    }
+}
@@ -1,10 +1,23 @@
 package io.myskool.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import io.myskool.config.jackson.PrebuiltWriterHttpMessageConverter;
+import io.myskool.service.dto.AdminUserDTO;
+import io.myskool.service.dto.UserDTO;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.zalando.problem.ProblemModule;
 import org.zalando.problem.violations.ConstraintViolationProblemModule;
 
@@ -48,4 +61,55 @@ public class JacksonConfiguration {
     public ConstraintViolationProblemModule constraintViolationProblemModule() {
         return new ConstraintViolationProblemModule();
     }
+
+    /**
+     * Accessors and constructors generated as bytecode, instead of called by reflection, when
+     * {@code application.jackson.afterburner} is enabled.
+     * @return the corresponding Jackson module.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.jackson", name = "afterburner", havingValue = "true")
+    public AfterburnerModule afterburnerModule() {
+        return new AfterburnerModule();
+    }
+
+    /**
+     * Replaces the JSON message converter of Spring Boot, with writers built once for the user DTOs.
+     * @param objectMapper the object mapper configured by Spring Boot.
+     * @return the JSON message converter.
+     */
+    @Bean
+    public PrebuiltWriterHttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        TypeFactory typeFactory = objectMapper.getTypeFactory();
+        return new PrebuiltWriterHttpMessageConverter(
+            objectMapper,
+            List.of(
+                typeFactory.constructCollectionType(List.class, AdminUserDTO.class),
+                typeFactory.constructCollectionType(List.class, UserDTO.class),
+                typeFactory.constructType(AdminUserDTO.class),
+                typeFactory.constructType(UserDTO.class)
+            )
+        );
+    }
+
+    /**
+     * Serves {@code application/cbor} to the clients asking for it, for smaller payloads than JSON and cheaper to parse.
+     * Spring MVC would otherwise register one with a mapper missing the modules and settings of the JSON one.
+     * @param builder the object mapper builder configured by Spring Boot.
+     * @return the CBOR message converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Serves {@code application/x-jackson-smile}, like {@link #mappingJackson2CborHttpMessageConverter}.
+     * @param builder the object mapper builder configured by Spring Boot.
+     * @return the Smile message converter.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
 }
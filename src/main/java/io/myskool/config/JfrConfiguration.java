@@ -0,0 +1,26 @@
+package io.myskool.config;
+
+import io.myskool.aop.jfr.UserMutationEventAspect;
+import io.myskool.config.jfr.JfrEndpoint;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@code /management/jfr} endpoint, secured with the rest of {@code /management/**} by the
+ * {@link SecurityConfiguration}, and the aspect recording the user mutations.
+ */
+@Configuration
+public class JfrConfiguration {
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public JfrEndpoint jfrEndpoint(ApplicationProperties applicationProperties) {
+        return new JfrEndpoint(applicationProperties.getJfr());
+    }
+
+    @Bean
+    public UserMutationEventAspect userMutationEventAspect() {
+        return new UserMutationEventAspect();
+    }
+}
@@ -1,5 +1,8 @@
 package io.myskool.config;
 
+import io.myskool.config.liquibase.ChangelogVersion;
+import io.myskool.config.liquibase.SchemaVersionVerifier;
+import io.myskool.config.liquibase.TaggingSpringLiquibase;
 import java.util.concurrent.Executor;
 import javax.sql.DataSource;
 import liquibase.integration.spring.SpringLiquibase;
@@ -7,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
@@ -15,8 +19,18 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 import tech.jhipster.config.JHipsterConstants;
+import tech.jhipster.config.liquibase.AsyncSpringLiquibase;
 import tech.jhipster.config.liquibase.SpringLiquibaseUtil;
 
+/**
+ * Liquibase, in one of the {@link ApplicationProperties.Liquibase.Mode}s:
+ * <ul>
+ *     <li>{@code update}: each instance applies the changelog at startup,</li>
+ *     <li>{@code migrate-only}: the changelog is applied once by a dedicated run, which exits afterwards (see the
+ *     {@code migrate} profile),</li>
+ *     <li>{@code verify}: the serving instances only check the version of the schema.</li>
+ * </ul>
+ */
 @Configuration
 public class LiquibaseConfiguration {
 
@@ -24,8 +38,11 @@ public class LiquibaseConfiguration {
 
     private final Environment env;
 
-    public LiquibaseConfiguration(Environment env) {
+    private final ApplicationProperties.Liquibase properties;
+
+    public LiquibaseConfiguration(Environment env, ApplicationProperties applicationProperties) {
         this.env = env;
+        this.properties = applicationProperties.getLiquibase();
     }
 
     @Bean
@@ -38,7 +55,7 @@ public class LiquibaseConfiguration {
     ) {
         // If you don't want Liquibase to start asynchronously, substitute by this:
         // SpringLiquibase liquibase = SpringLiquibaseUtil.createSpringLiquibase(liquibaseDataSource.getIfAvailable(), liquibaseProperties, dataSource.getIfUnique(), dataSourceProperties);
-        SpringLiquibase liquibase = SpringLiquibaseUtil.createAsyncSpringLiquibase(
+        AsyncSpringLiquibase configured = SpringLiquibaseUtil.createAsyncSpringLiquibase(
             this.env,
             executor,
             liquibaseDataSource.getIfAvailable(),
@@ -46,6 +63,18 @@ public class LiquibaseConfiguration {
             dataSource.getIfUnique(),
             dataSourceProperties
         );
+        ApplicationProperties.Liquibase.Mode mode = properties.getMode();
+        TaggingSpringLiquibase liquibase = new TaggingSpringLiquibase(
+            executor,
+            this.env,
+            ChangelogVersion.current(),
+            mode == ApplicationProperties.Liquibase.Mode.MIGRATE_ONLY
+        );
+        // The data source chosen by SpringLiquibaseUtil, closed once migrated only if it was created for Liquibase
+        liquibase.setDataSource(configured.getDataSource());
+        liquibase.setCloseDataSourceOnceMigrated(
+            configured.getDataSource() != liquibaseDataSource.getIfAvailable() && configured.getDataSource() != dataSource.getIfUnique()
+        );
         liquibase.setChangeLog("classpath:config/liquibase/master.xml");
         liquibase.setContexts(liquibaseProperties.getContexts());
         liquibase.setDefaultSchema(liquibaseProperties.getDefaultSchema());
@@ -60,10 +89,22 @@ public class LiquibaseConfiguration {
         liquibase.setTestRollbackOnUpdate(liquibaseProperties.isTestRollbackOnUpdate());
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_NO_LIQUIBASE))) {
             liquibase.setShouldRun(false);
+        } else if (mode == ApplicationProperties.Liquibase.Mode.VERIFY) {
+            liquibase.setShouldRun(false);
+            log.debug("Verifying the database schema version instead of running Liquibase");
         } else {
             liquibase.setShouldRun(liquibaseProperties.isEnabled());
             log.debug("Configuring Liquibase");
         }
         return liquibase;
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.liquibase", name = "mode", havingValue = "verify")
+    public SchemaVersionVerifier schemaVersionVerifier(DataSource dataSource, LiquibaseProperties liquibaseProperties) {
+        String schema = liquibaseProperties.getLiquibaseSchema() != null
+            ? liquibaseProperties.getLiquibaseSchema()
+            : liquibaseProperties.getDefaultSchema();
+        return new SchemaVersionVerifier(dataSource, schema, liquibaseProperties.getDatabaseChangeLogTable(), ChangelogVersion.current());
+    }
 }
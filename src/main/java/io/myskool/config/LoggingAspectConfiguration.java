@@ -1,6 +1,9 @@
 package io.myskool.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.myskool.aop.logging.LoggingAspect;
+import io.myskool.aop.timing.MethodTimingAspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -11,7 +14,17 @@ public class LoggingAspectConfiguration {
 
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+    @ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", havingValue = "false", matchIfMissing = true)
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    /**
+     * Replaces the {@link LoggingAspect} when enabled, in any profile.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", havingValue = "true")
+    public MethodTimingAspect methodTimingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new MethodTimingAspect(meterRegistry, applicationProperties.getMethodTiming().getSampleRate());
+    }
 }
@@ -0,0 +1,43 @@
+package io.myskool.config;
+
+import io.myskool.config.mail.PooledJavaMailSender;
+import java.util.Properties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the auto-configured {@link org.springframework.mail.javamail.JavaMailSender} with one keeping its
+ * SMTP connections open between sends.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+@ConditionalOnProperty(prefix = "spring.mail", name = "host")
+public class MailConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.mail.pool", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public PooledJavaMailSender mailSender(MailProperties mailProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Mail.Pool pool = applicationProperties.getMail().getPool();
+        PooledJavaMailSender sender = new PooledJavaMailSender(pool.getSize(), pool.getIdleTimeout());
+        // Same as Spring Boot's MailSenderPropertiesConfiguration
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        if (mailProperties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        }
+        if (!mailProperties.getProperties().isEmpty()) {
+            Properties properties = new Properties();
+            properties.putAll(mailProperties.getProperties());
+            sender.setJavaMailProperties(properties);
+        }
+        return sender;
+    }
+}
@@ -0,0 +1,26 @@
+package io.myskool.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.myskool.config.metrics.MetricSeriesEndpoint;
+import io.myskool.config.metrics.MetricsPolicyMeterFilter;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bounds the series exported by the meter registries, and reports them on {@code /management/metricseries}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MetricsPolicyMeterFilter metricsPolicyMeterFilter(ApplicationProperties applicationProperties) {
+        return new MetricsPolicyMeterFilter(applicationProperties.getMetrics());
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public MetricSeriesEndpoint metricSeriesEndpoint(MeterRegistry meterRegistry, MetricsPolicyMeterFilter metricsPolicyMeterFilter) {
+        return new MetricSeriesEndpoint(meterRegistry, metricsPolicyMeterFilter);
+    }
+}
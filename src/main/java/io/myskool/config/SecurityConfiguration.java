@@ -1,5 +1,6 @@
 package io.myskool.config;
 
+import io.myskool.config.jfr.RecordingPasswordEncoder;
 import io.myskool.security.*;
 import io.myskool.security.jwt.*;
 import org.springframework.context.annotation.Bean;
@@ -45,7 +46,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new RecordingPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     @Override
@@ -86,12 +87,12 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
         .and()
             .authorizeRequests()
-            .antMatchers("/api/authenticate").permitAll()
-            .antMatchers("/api/register").permitAll()
-            .antMatchers("/api/activate").permitAll()
+            .antMatchers(RoutePatterns.AUTHENTICATE).permitAll()
+            .antMatchers(RoutePatterns.REGISTER).permitAll()
+            .antMatchers(RoutePatterns.ACTIVATE).permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
             .antMatchers("/api/account/reset-password/finish").permitAll()
-            .antMatchers("/api/admin/**").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers(RoutePatterns.ADMIN).hasAuthority(AuthoritiesConstants.ADMIN)
             .antMatchers("/api/**").authenticated()
             .antMatchers("/management/health").permitAll()
             .antMatchers("/management/health/**").permitAll()
@@ -0,0 +1,57 @@
+package io.myskool.config;
+
+import io.myskool.config.startup.StartupReportEndpoint;
+import io.myskool.security.jwt.TokenProvider;
+import io.myskool.service.UserService;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Startup measurement, and the beans kept eager by the lazy initialization of the {@code fast-start} profile.
+ */
+@Configuration
+public class StartupConfiguration {
+
+    /**
+     * Beans created at startup even with {@code spring.main.lazy-initialization}: the database migrations, the
+     * scheduled jobs, the JWT filter and the health checks refreshed in the background.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            SpringLiquibase.class,
+            UserService.class,
+            TokenProvider.class,
+            HealthContributor.class
+        );
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    @Conditional(OnBufferingApplicationStartupCondition.class)
+    public StartupReportEndpoint startupReportEndpoint(ConfigurableApplicationContext applicationContext) {
+        return new StartupReportEndpoint((BufferingApplicationStartup) applicationContext.getApplicationStartup());
+    }
+
+    static class OnBufferingApplicationStartupCondition extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            if (context.getBeanFactory().getApplicationStartup() instanceof BufferingApplicationStartup) {
+                return ConditionOutcome.match("BufferingApplicationStartup is used");
+            }
+            return ConditionOutcome.noMatch("BufferingApplicationStartup is not used");
+        }
+    }
+}
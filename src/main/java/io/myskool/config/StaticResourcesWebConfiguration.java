@@ -7,9 +7,16 @@ import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 
+/**
+ * Serves the bundles built by webpack.
+ * <p>
+ * Their names contain a hash of their content, so they are cached as immutable. The {@code .br} and {@code .gz}
+ * variants emitted by the build are served to the clients accepting them, so that the server never compresses them.
+ */
 @Configuration
 @Profile({ JHipsterConstants.SPRING_PROFILE_PRODUCTION })
 public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
@@ -38,14 +45,32 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
     }
 
     protected void initializeResourceHandler(ResourceHandlerRegistration resourceHandlerRegistration) {
-        resourceHandlerRegistration.addResourceLocations(RESOURCE_LOCATIONS).setCacheControl(getCacheControl());
+        resourceHandlerRegistration
+            .addResourceLocations(RESOURCE_LOCATIONS)
+            .setCacheControl(getCacheControl())
+            // Caches the resolved variant of each path and encoding
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver());
     }
 
     protected CacheControl getCacheControl() {
-        return CacheControl.maxAge(getJHipsterHttpCacheProperty(), TimeUnit.DAYS).cachePublic();
+        return immutable(CacheControl.maxAge(getJHipsterHttpCacheProperty(), TimeUnit.DAYS).cachePublic());
     }
 
     private int getJHipsterHttpCacheProperty() {
         return jhipsterProperties.getHttp().getCache().getTimeToLiveInDays();
     }
+
+    /**
+     * Adds the {@code immutable} directive, which {@link CacheControl} does not support, so that browsers do not
+     * revalidate the resources when the page is reloaded.
+     */
+    private static CacheControl immutable(CacheControl cacheControl) {
+        return new CacheControl() {
+            @Override
+            public String getHeaderValue() {
+                return cacheControl.getHeaderValue() + ", immutable";
+            }
+        };
+    }
 }
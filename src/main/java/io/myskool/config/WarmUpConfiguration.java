@@ -0,0 +1,44 @@
+package io.myskool.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.myskool.config.warmup.WarmUpRunner;
+import io.myskool.repository.UserRepository;
+import io.myskool.security.jwt.TokenProvider;
+import io.myskool.service.mapper.UserMapper;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Warms up the application before its readiness state moves to accepting traffic.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpConfiguration {
+
+    @Bean
+    public WarmUpRunner warmUpRunner(
+        DataSource dataSource,
+        TokenProvider tokenProvider,
+        UserMapper userMapper,
+        UserRepository userRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        return new WarmUpRunner(
+            dataSource,
+            tokenProvider,
+            userMapper,
+            userRepository,
+            objectMapper,
+            transactionManager,
+            meterRegistry,
+            applicationProperties.getWarmUp()
+        );
+    }
+}
@@ -2,6 +2,12 @@ package io.myskool.config;
 
 import static java.net.URLDecoder.decode;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.myskool.security.RoutePatterns;
+import io.myskool.web.filter.BulkheadFilter;
+import io.myskool.web.filter.ConcurrencyLimitFilter;
+import io.myskool.web.filter.GradientConcurrencyLimit;
+import io.myskool.web.filter.SqlStatementCountingFilter;
 import java.io.File;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
@@ -10,11 +16,15 @@ import java.util.*;
 import javax.servlet.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 import org.springframework.util.CollectionUtils;
@@ -111,6 +121,133 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return new CorsFilter(source);
     }
 
+    /**
+     * Sheds the {@code /api} requests above their concurrency limit before they reach Spring Security, the
+     * administration requests and the authentications, hashing passwords, each having their own limit.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        log.debug("Registering concurrency limit filter");
+        ApplicationProperties.ConcurrencyLimit concurrencyLimit = applicationProperties.getConcurrencyLimit();
+        GradientConcurrencyLimit adminLimit = gradientConcurrencyLimit(concurrencyLimit, concurrencyLimit.getAdmin());
+        GradientConcurrencyLimit authenticateLimit = gradientConcurrencyLimit(concurrencyLimit, concurrencyLimit.getAuthenticate());
+        GradientConcurrencyLimit apiLimit = gradientConcurrencyLimit(concurrencyLimit, concurrencyLimit.getApi());
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(meterRegistry, apiLimit)
+            .addGroup("admin", List.of(RoutePatterns.ADMIN), adminLimit)
+            .addGroup("authenticate", List.of(RoutePatterns.AUTHENTICATE), authenticateLimit);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    /**
+     * Caps the {@code /api} requests of each group of paths, right after the concurrency limit, so that the
+     * administration, the authentications, the accounts and the other requests never hold all the worker threads.
+     * The caps are sized for the actual number of Undertow worker threads.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties,
+        ServerProperties serverProperties
+    ) {
+        log.debug("Registering bulkhead filter");
+        ApplicationProperties.Bulkhead bulkhead = applicationProperties.getBulkhead();
+        Map<String, ApplicationProperties.Bulkhead.Group> groups = new LinkedHashMap<>();
+        groups.put("admin", bulkhead.getAdmin());
+        groups.put("authenticate", bulkhead.getAuthenticate());
+        groups.put("account", bulkhead.getAccount());
+        groups.put("api", bulkhead.getApi());
+        int workerThreads = undertowWorkerThreads(serverProperties.getUndertow().getThreads());
+        Map<String, Integer> maxConcurrent = new LinkedHashMap<>();
+        groups.forEach((name, group) -> maxConcurrent.put(name, bulkheadMaxConcurrent(name, group, workerThreads)));
+        int total = maxConcurrent.values().stream().mapToInt(Integer::intValue).sum();
+        if (total > workerThreads) {
+            log.warn(
+                "The bulkheads allow {} concurrent requests, more than the {} worker threads: a group can starve the others",
+                total,
+                workerThreads
+            );
+        }
+        log.debug("Bulkheads of the {} worker threads: {}", workerThreads, maxConcurrent);
+
+        BulkheadFilter filter = new BulkheadFilter(meterRegistry, maxConcurrent.remove("api"), bulkhead.getApi().getMaxWait());
+        maxConcurrent.forEach(
+            (name, max) -> filter.addGroup(name, groups.get(name).getPatterns(), max, groups.get(name).getMaxWait())
+        );
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 6);
+        return registration;
+    }
+
+    /**
+     * The number of worker threads of Undertow, defaulting like in {@code Undertow.Builder} to 8 per I/O thread, the
+     * I/O threads defaulting to one per core, and at least 2.
+     */
+    static int undertowWorkerThreads(ServerProperties.Undertow.Threads threads) {
+        if (threads.getWorker() != null) {
+            return threads.getWorker();
+        }
+        int ioThreads = threads.getIo() != null ? threads.getIo() : Math.max(Runtime.getRuntime().availableProcessors(), 2);
+        return ioThreads * 8;
+    }
+
+    private static int bulkheadMaxConcurrent(String name, ApplicationProperties.Bulkhead.Group group, int workerThreads) {
+        if (group.getMaxConcurrent() == null) {
+            return Math.max(1, (int) (workerThreads * group.getWorkerShare()));
+        }
+        if (group.getMaxConcurrent() >= workerThreads) {
+            throw new IllegalStateException(
+                "application.bulkhead." +
+                name +
+                ".max-concurrent (" +
+                group.getMaxConcurrent() +
+                ") must be below the number of Undertow worker threads (" +
+                workerThreads +
+                ")"
+            );
+        }
+        return group.getMaxConcurrent();
+    }
+
+    private static GradientConcurrencyLimit gradientConcurrencyLimit(
+        ApplicationProperties.ConcurrencyLimit concurrencyLimit,
+        ApplicationProperties.ConcurrencyLimit.Limit limit
+    ) {
+        return new GradientConcurrencyLimit(
+            limit.getInitialLimit(),
+            limit.getMinLimit(),
+            limit.getMaxLimit(),
+            concurrencyLimit.getSmoothing(),
+            concurrencyLimit.getRttTolerance(),
+            concurrencyLimit.getLongWindow()
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.sql-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<SqlStatementCountingFilter> sqlStatementCountingFilter(
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        log.debug("Registering SQL statement counting filter");
+        ApplicationProperties.SqlMetrics sqlMetrics = applicationProperties.getSqlMetrics();
+        FilterRegistrationBean<SqlStatementCountingFilter> registration = new FilterRegistrationBean<>(
+            new SqlStatementCountingFilter(meterRegistry, sqlMetrics.isResponseHeader(), sqlMetrics.getWarnThreshold())
+        );
+        registration.addUrlPatterns("/api/*");
+        // Run before Spring Security, so that authentication queries are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
     /**
      * Initializes H2 console.
      */
@@ -0,0 +1,62 @@
+package io.myskool.config.datasource;
+
+import io.myskool.web.filter.BulkheadFilter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * {@link DataSource} giving the requests of some bulkhead groups, such as the administration, their own pool, so that
+ * their heavy listings and bulk operations never hold the connections of the other requests.
+ * <p>
+ * The group of a request is the one set by the {@link BulkheadFilter}. Everything else, including the work outside of
+ * a request, goes to the default {@link DataSource}.
+ * <p>
+ * The target pools are owned by this {@link DataSource} and closed with it.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String DEFAULT = "default";
+
+    public static final String BULKHEAD = "bulkhead";
+
+    private final DataSource defaultDataSource;
+
+    private final DataSource bulkheadDataSource;
+
+    private final Set<String> groups;
+
+    public BulkheadRoutingDataSource(DataSource defaultDataSource, DataSource bulkheadDataSource, Set<String> groups) {
+        this.defaultDataSource = defaultDataSource;
+        this.bulkheadDataSource = bulkheadDataSource;
+        this.groups = groups;
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(DEFAULT, defaultDataSource);
+        targetDataSources.put(BULKHEAD, bulkheadDataSource);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(defaultDataSource);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object group = attributes != null ? attributes.getAttribute(BulkheadFilter.GROUP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+        return group != null && groups.contains(group) ? BULKHEAD : DEFAULT;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource dataSource : new DataSource[] { bulkheadDataSource, defaultDataSource }) {
+            if (dataSource instanceof DisposableBean) {
+                ((DisposableBean) dataSource).destroy();
+            } else if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.myskool.config.datasource;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * {@link LazyConnectionDataSourceProxy} in front of a routing {@link DataSource}, so that the target is only chosen
+ * when the first statement is created.
+ * <p>
+ * Hibernate obtains the connection of a JPA transaction while beginning it, before the transaction synchronization,
+ * and its read-only flag, is set up: without this proxy, the {@link ReplicaRoutingDataSource} would route every
+ * transaction to the primary.
+ * <p>
+ * The target {@link DataSource} is owned by this proxy and destroyed with it.
+ */
+public class LazyRoutingDataSource extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+    public LazyRoutingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        DataSource targetDataSource = obtainTargetDataSource();
+        if (targetDataSource instanceof DisposableBean) {
+            ((DisposableBean) targetDataSource).destroy();
+        } else if (targetDataSource instanceof AutoCloseable) {
+            ((AutoCloseable) targetDataSource).close();
+        }
+    }
+}
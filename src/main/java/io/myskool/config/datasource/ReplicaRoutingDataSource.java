@@ -0,0 +1,233 @@
+package io.myskool.config.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DataSource} sending read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * The replica is checked on a fixed cadence: while it is unreachable, or lagging more than the configured
+ * maximum, read-only transactions fall back to the primary. A failure to obtain a replica connection also
+ * falls back to the primary and marks the replica as unavailable until the next successful check.
+ * <p>
+ * The target {@link DataSource}s, such as a {@link BulkheadRoutingDataSource} as the primary, are owned by this
+ * {@link DataSource} and closed with it.
+ * <p>
+ * Routing relies on the connection being acquired once the transaction is started and its read-only flag is set,
+ * which is not the case with the {@code JpaTransactionManager}: Hibernate acquires the connection while beginning the
+ * transaction. This {@link DataSource} must hence be used through a {@link LazyRoutingDataSource}.
+ * <p>
+ * A transaction reading from the replica can see data older than its latest writes: such data must not be cached past
+ * the transaction, see {@link #isCurrentTransactionRoutedToReplica()}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    public static final String REPLICA = "replica";
+
+    private static final String ROUTED_TO_REPLICA = ReplicaRoutingDataSource.class.getName() + ".routedToReplica";
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private final String lagQuery;
+
+    private final Duration maxLag;
+
+    private final Duration checkInterval;
+
+    private ScheduledExecutorService lagChecker;
+
+    private volatile boolean replicaAvailable = true;
+
+    private volatile Duration replicaLag = Duration.ZERO;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        targetDataSources.put(REPLICA, replica);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplica();
+        if (!checkInterval.isZero() && !checkInterval.isNegative()) {
+            lagChecker =
+                Executors.newSingleThreadScheduledExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "myskool-replica-check");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                );
+            lagChecker.scheduleWithFixedDelay(
+                this::checkReplica,
+                checkInterval.toMillis(),
+                checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (DataSource dataSource : new DataSource[] { replica, primary }) {
+            if (dataSource instanceof DisposableBean) {
+                ((DisposableBean) dataSource).destroy();
+            } else if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY.equals(determineCurrentLookupKey())) {
+            return primary.getConnection();
+        }
+        Connection connection;
+        try {
+            connection = replica.getConnection();
+        } catch (SQLException e) {
+            markReplicaUnavailable("connection failed", e);
+            return primary.getConnection();
+        }
+        markCurrentTransactionRoutedToReplica();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (PRIMARY.equals(determineCurrentLookupKey())) {
+            return primary.getConnection(username, password);
+        }
+        Connection connection;
+        try {
+            connection = replica.getConnection(username, password);
+        } catch (SQLException e) {
+            markReplicaUnavailable("connection failed", e);
+            return primary.getConnection(username, password);
+        }
+        markCurrentTransactionRoutedToReplica();
+        return connection;
+    }
+
+    /**
+     * Whether the current transaction reads from the replica, which can lag behind the primary: what it reads must
+     * then not be cached, as it could be older than the latest writes, and their cache evictions.
+     *
+     * @return {@code true} if the current transaction obtained a replica connection.
+     */
+    public static boolean isCurrentTransactionRoutedToReplica() {
+        return TransactionSynchronizationManager.hasResource(ROUTED_TO_REPLICA);
+    }
+
+    private static void markCurrentTransactionRoutedToReplica() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || isCurrentTransactionRoutedToReplica()) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(ROUTED_TO_REPLICA, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(ROUTED_TO_REPLICA);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(ROUTED_TO_REPLICA, Boolean.TRUE);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ROUTED_TO_REPLICA);
+                }
+            }
+        );
+    }
+
+    /**
+     * Checks that the replica is reachable and, if a lag query is configured, that it is not lagging behind
+     * the primary by more than the configured maximum.
+     */
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+            Duration lag = Duration.ZERO;
+            if (lagQuery != null) {
+                statement.setQueryTimeout((int) Math.max(1, checkInterval.getSeconds()));
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    // A null lag means nothing was replayed yet, or the database is not a standby
+                    if (resultSet.next()) {
+                        double seconds = resultSet.getDouble(1);
+                        if (!resultSet.wasNull()) {
+                            lag = Duration.ofMillis((long) (seconds * 1000));
+                        }
+                    }
+                }
+            }
+            replicaLag = lag;
+            if (lag.compareTo(maxLag) > 0) {
+                markReplicaUnavailable("lag of " + lag.toMillis() + "ms exceeds " + maxLag.toMillis() + "ms", null);
+            } else if (!replicaAvailable) {
+                log.info("Replica is available again, routing read-only transactions to it");
+                replicaAvailable = true;
+            }
+        } catch (SQLException | RuntimeException e) {
+            markReplicaUnavailable("check failed", e);
+        }
+    }
+
+    private void markReplicaUnavailable(String reason, Exception e) {
+        if (replicaAvailable) {
+            log.warn("Replica is unavailable ({}), routing read-only transactions to the primary", reason, e);
+            replicaAvailable = false;
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public Duration getReplicaLag() {
+        return replicaLag;
+    }
+}
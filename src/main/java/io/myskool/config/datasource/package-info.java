@@ -0,0 +1,4 @@
+/**
+ * DataSource routing configuration.
+ */
+package io.myskool.config.datasource;
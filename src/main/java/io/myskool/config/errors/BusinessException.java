@@ -0,0 +1,19 @@
+package io.myskool.config.errors;
+
+/**
+ * Base class of the unchecked exceptions of expected business failures, capturing their stack trace only when
+ * {@link BusinessExceptions#isStackTraceEnabled()}.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected BusinessException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return BusinessExceptions.fillInStackTrace(this, super::fillInStackTrace);
+    }
+}
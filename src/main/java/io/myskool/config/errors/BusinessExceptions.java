@@ -0,0 +1,45 @@
+package io.myskool.config.errors;
+
+import java.util.function.Supplier;
+
+/**
+ * Whether the exceptions of expected business failures, such as an already used email or a wrong password, capture
+ * their stack trace.
+ * <p>
+ * These exceptions are thrown on every failed request and always translated to the same response, so their stack
+ * trace is never used, while filling it walks the whole servlet stack on each throw. It is only captured when
+ * {@code application.errors.stack-traces} is enabled, as in dev. The unchecked exceptions extend
+ * {@link BusinessException}, the others, such as the problems, delegate to {@link #fillInStackTrace(Throwable, Supplier)}
+ * from their {@link Throwable#fillInStackTrace()} override:
+ * <pre>
+ * &#64;Override
+ * public synchronized Throwable fillInStackTrace() {
+ *     return BusinessExceptions.fillInStackTrace(this, super::fillInStackTrace);
+ * }
+ * </pre>
+ */
+public final class BusinessExceptions {
+
+    private static volatile boolean stackTraceEnabled;
+
+    private BusinessExceptions() {}
+
+    public static boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
+
+    public static void setStackTraceEnabled(boolean stackTraceEnabled) {
+        BusinessExceptions.stackTraceEnabled = stackTraceEnabled;
+    }
+
+    /**
+     * Fill in the stack trace of a business exception, if enabled.
+     *
+     * @param exception the exception.
+     * @param superFillInStackTrace the {@link Throwable#fillInStackTrace()} of the superclass of the exception.
+     * @return the exception.
+     */
+    public static Throwable fillInStackTrace(Throwable exception, Supplier<Throwable> superFillInStackTrace) {
+        return stackTraceEnabled ? superFillInStackTrace.get() : exception;
+    }
+}
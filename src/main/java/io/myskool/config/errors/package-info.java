@@ -0,0 +1,4 @@
+/**
+ * Handling of the expected business errors.
+ */
+package io.myskool.config.errors;
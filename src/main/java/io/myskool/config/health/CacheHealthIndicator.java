@@ -0,0 +1,36 @@
+package io.myskool.config.health;
+
+import javax.cache.CacheManager;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * {@link org.springframework.boot.actuate.health.HealthIndicator} checking that the JCache caches are open.
+ */
+public class CacheHealthIndicator extends AbstractHealthIndicator {
+
+    private final CacheManager cacheManager;
+
+    public CacheHealthIndicator(CacheManager cacheManager) {
+        super("Cache health check failed");
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (cacheManager.isClosed()) {
+            builder.down().withDetail("reason", "Cache manager closed");
+            return;
+        }
+        int caches = 0;
+        for (String cacheName : cacheManager.getCacheNames()) {
+            javax.cache.Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+            if (cache == null || cache.isClosed()) {
+                builder.down().withDetail("reason", "Cache " + cacheName + " closed");
+                return;
+            }
+            caches++;
+        }
+        builder.up().withDetail("caches", caches);
+    }
+}
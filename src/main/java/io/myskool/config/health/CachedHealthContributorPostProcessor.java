@@ -0,0 +1,80 @@
+package io.myskool.config.health;
+
+import io.myskool.config.ApplicationProperties;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * {@link BeanPostProcessor} replacing the configured health contributors, such as Spring Boot's {@code db} and
+ * {@code mail} ones, with {@link CachedHealthIndicator}s refreshed at a fixed delay on a dedicated scheduler.
+ * <p>
+ * Contributors are matched by name, their bean name without the {@code HealthIndicator} or
+ * {@code HealthContributor} suffix. Each indicator of a composite contributor, such as the one of a routing data
+ * source, is cached on its own.
+ */
+public class CachedHealthContributorPostProcessor implements BeanPostProcessor, DisposableBean {
+
+    private static final String[] SUFFIXES = { "HealthIndicator", "HealthContributor" };
+
+    private final ApplicationProperties.Health properties;
+
+    private final ThreadPoolTaskScheduler taskScheduler;
+
+    public CachedHealthContributorPostProcessor(ApplicationProperties.Health properties) {
+        this.properties = properties;
+        this.taskScheduler = new ThreadPoolTaskScheduler();
+        // One thread per contributor, so that a stuck check does not delay the others
+        taskScheduler.setPoolSize(Math.max(1, properties.getCachedContributors().size()));
+        taskScheduler.setThreadNamePrefix("health-");
+        taskScheduler.setDaemon(true);
+        taskScheduler.initialize();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HealthContributor) {
+            String name = contributorName(beanName);
+            if (properties.getCachedContributors().contains(name)) {
+                return cache(name, (HealthContributor) bean);
+            }
+        }
+        return bean;
+    }
+
+    private HealthContributor cache(String name, HealthContributor contributor) {
+        if (contributor instanceof HealthIndicator) {
+            CachedHealthIndicator indicator = new CachedHealthIndicator(name, (HealthIndicator) contributor, properties.getMaxStaleness());
+            taskScheduler.scheduleWithFixedDelay(indicator::refresh, properties.getRefreshInterval());
+            return indicator;
+        }
+        if (contributor instanceof CompositeHealthContributor) {
+            Map<String, HealthContributor> contributors = new LinkedHashMap<>();
+            for (NamedContributor<HealthContributor> child : (CompositeHealthContributor) contributor) {
+                contributors.put(child.getName(), cache(name + '.' + child.getName(), child.getContributor()));
+            }
+            return CompositeHealthContributor.fromMap(contributors);
+        }
+        return contributor;
+    }
+
+    private static String contributorName(String beanName) {
+        for (String suffix : SUFFIXES) {
+            if (beanName.length() > suffix.length() && beanName.endsWith(suffix)) {
+                return beanName.substring(0, beanName.length() - suffix.length());
+            }
+        }
+        return beanName;
+    }
+
+    @Override
+    public void destroy() {
+        taskScheduler.shutdown();
+    }
+}
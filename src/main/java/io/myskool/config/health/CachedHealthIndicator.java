@@ -0,0 +1,82 @@
+package io.myskool.config.health;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * {@link HealthIndicator} serving the last result of another one, refreshed in the background.
+ * <p>
+ * Probes return immediately, without running the check themselves, so that they do not queue behind it when the
+ * checked resource is exhausted. A result older than the maximum staleness, because the refresh is stuck or failing,
+ * is reported as {@link Status#DOWN}; until the first refresh the indicator is {@link Status#OUT_OF_SERVICE}.
+ */
+public class CachedHealthIndicator implements HealthIndicator {
+
+    private final Logger log = LoggerFactory.getLogger(CachedHealthIndicator.class);
+
+    private static final String CHECKED_AT = "checkedAt";
+
+    private static final Health NOT_CHECKED = Health.outOfService().withDetail("reason", "Not checked yet").build();
+
+    private final String name;
+
+    private final HealthIndicator delegate;
+
+    private final long maxStalenessNanos;
+
+    private volatile Result result;
+
+    public CachedHealthIndicator(String name, HealthIndicator delegate, Duration maxStaleness) {
+        this.name = name;
+        this.delegate = delegate;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    /**
+     * Runs the check of the delegate indicator, and keeps its result.
+     */
+    public void refresh() {
+        Health health;
+        try {
+            health = delegate.getHealth(true);
+        } catch (Exception e) {
+            log.warn("Health check {} failed: {}", name, e.getMessage());
+            health = Health.down(e).build();
+        }
+        result =
+            new Result(Health.status(health.getStatus()).withDetails(health.getDetails()).withDetail(CHECKED_AT, Instant.now()).build());
+    }
+
+    @Override
+    public Health health() {
+        Result current = result;
+        if (current == null) {
+            return NOT_CHECKED;
+        }
+        if (System.nanoTime() - current.checkedAt > maxStalenessNanos) {
+            return Health
+                .down()
+                .withDetail("reason", "Not checked for more than " + Duration.ofNanos(maxStalenessNanos))
+                .withDetail("lastStatus", current.health.getStatus().getCode())
+                .withDetail(CHECKED_AT, current.health.getDetails().get(CHECKED_AT))
+                .build();
+        }
+        return current.health;
+    }
+
+    private static final class Result {
+
+        private final Health health;
+
+        private final long checkedAt = System.nanoTime();
+
+        private Result(Health health) {
+            this.health = health;
+        }
+    }
+}
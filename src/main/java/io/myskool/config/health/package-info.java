@@ -0,0 +1,4 @@
+/**
+ * Health indicators.
+ */
+package io.myskool.config.health;
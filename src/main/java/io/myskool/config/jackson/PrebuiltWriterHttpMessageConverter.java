@@ -0,0 +1,65 @@
+package io.myskool.config.jackson;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+/**
+ * {@link MappingJackson2HttpMessageConverter} writing the hot response types, such as the user DTO lists, with
+ * {@link ObjectWriter}s built once, their root serializer resolved, instead of a new writer per response.
+ * <p>
+ * Responses of other types, with a {@code MappingJacksonValue} or in another charset than UTF-8 are written as usual.
+ * Like the default converter, the JSON is generated straight into the response body.
+ */
+public class PrebuiltWriterHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Map<JavaType, ObjectWriter> writers = new HashMap<>();
+
+    public PrebuiltWriterHttpMessageConverter(ObjectMapper objectMapper, List<JavaType> types) {
+        super(objectMapper);
+        types.forEach(type -> writers.put(type, objectMapper.writerFor(type)));
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        ObjectWriter writer = type != null ? writers.get(getObjectMapper().constructType(type)) : null;
+        if (writer == null || !isUtf8(outputMessage.getHeaders().getContentType())) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        try (
+            JsonGenerator generator = getObjectMapper()
+                .getFactory()
+                .createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)
+        ) {
+            writer.writeValue(generator, object);
+            generator.flush();
+        } catch (InvalidDefinitionException e) {
+            throw new HttpMessageNotWritableException("Type definition error: " + e.getType(), e);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static boolean isUtf8(@Nullable MediaType contentType) {
+        Charset charset = contentType != null ? contentType.getCharset() : null;
+        return charset == null || StandardCharsets.UTF_8.equals(charset);
+    }
+}
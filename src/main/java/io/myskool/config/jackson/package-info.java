@@ -0,0 +1,4 @@
+/**
+ * JSON serialization of the REST responses.
+ */
+package io.myskool.config.jackson;
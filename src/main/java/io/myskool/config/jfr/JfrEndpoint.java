@@ -0,0 +1,249 @@
+package io.myskool.config.jfr;
+
+import io.myskool.config.ApplicationProperties;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+/**
+ * Endpoint managing Java Flight Recorder recordings, exposed as {@code /management/jfr}.
+ * <ul>
+ *     <li>{@code GET /management/jfr} lists the recordings started by this endpoint.</li>
+ *     <li>{@code POST /management/jfr} starts a recording, with optional {@code name}, {@code settings} and
+ *     {@code duration} parameters.</li>
+ *     <li>{@code POST /management/jfr/{id}} stops a recording, keeping its data until it is deleted.</li>
+ *     <li>{@code GET /management/jfr/{id}} downloads the data of a recording, so far if it is still running.</li>
+ *     <li>{@code DELETE /management/jfr/{id}} stops a recording and discards its data.</li>
+ * </ul>
+ * The settings must be one of the allowed JFR configurations, such as the JDK's {@code default} and {@code profile}.
+ * The duration and the size of each recording, and the number of recordings kept, are capped.
+ */
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final Logger log = LoggerFactory.getLogger(JfrEndpoint.class);
+
+    private final ApplicationProperties.Jfr properties;
+
+    private final Map<Long, ManagedRecording> recordings = new ConcurrentHashMap<>();
+
+    public JfrEndpoint(ApplicationProperties.Jfr properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        return recordings.values().stream().map(ManagedRecording::describe).collect(Collectors.toList());
+    }
+
+    @WriteOperation
+    public synchronized RecordingDescriptor start(@Nullable String name, @Nullable String settings, @Nullable Duration duration) {
+        if (recordings.size() >= properties.getMaxRecordings()) {
+            throw new InvalidEndpointRequestException(
+                "At most " + properties.getMaxRecordings() + " recordings are kept, delete one first",
+                "Too many recordings"
+            );
+        }
+        String settingsName = settings != null ? settings : properties.getDefaultSettings();
+        if (!properties.getAllowedSettings().contains(settingsName)) {
+            throw new InvalidEndpointRequestException(
+                "Settings must be one of " + properties.getAllowedSettings(),
+                "Settings not allowed: " + settingsName
+            );
+        }
+        Duration recordingDuration = duration != null ? duration : properties.getDefaultDuration();
+        if (recordingDuration.isNegative() || recordingDuration.isZero() || recordingDuration.compareTo(properties.getMaxDuration()) > 0) {
+            throw new InvalidEndpointRequestException(
+                "Duration must be positive and at most " + properties.getMaxDuration(),
+                "Duration not allowed: " + recordingDuration
+            );
+        }
+        Recording recording = new Recording(configuration(settingsName).getSettings());
+        recording.setName(name != null ? name : "myskool-" + settingsName);
+        recording.setToDisk(true);
+        recording.setDuration(recordingDuration);
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.start();
+        ManagedRecording managed = new ManagedRecording(recording, settingsName);
+        recordings.put(recording.getId(), managed);
+        log.info("Started JFR recording {} with {} settings for {}", recording.getId(), settingsName, recordingDuration);
+        return managed.describe();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<RecordingDescriptor> stop(@Selector long id) {
+        ManagedRecording managed = recordings.get(id);
+        if (managed == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (managed.recording.getState() == RecordingState.RUNNING) {
+            managed.recording.stop();
+            log.info("Stopped JFR recording {}", id);
+        }
+        return new WebEndpointResponse<>(managed.describe());
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        ManagedRecording managed = recordings.get(id);
+        if (managed == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+        try {
+            managed.recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileSystemResource(file.toFile()));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> delete(@Selector long id) {
+        ManagedRecording managed = recordings.remove(id);
+        if (managed == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        managed.recording.close();
+        log.info("Deleted JFR recording {}", id);
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    private static Configuration configuration(String name) {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings " + name, "Unknown settings: " + name);
+        }
+    }
+
+    private static final class ManagedRecording {
+
+        private final Recording recording;
+
+        private final String settings;
+
+        private ManagedRecording(Recording recording, String settings) {
+            this.recording = recording;
+            this.settings = settings;
+        }
+
+        private RecordingDescriptor describe() {
+            return new RecordingDescriptor(recording, settings);
+        }
+    }
+
+    /**
+     * Description of a recording.
+     */
+    public static final class RecordingDescriptor {
+
+        private final long id;
+
+        private final String name;
+
+        private final String settings;
+
+        private final RecordingState state;
+
+        private final Instant startTime;
+
+        private final Duration duration;
+
+        private final long size;
+
+        private RecordingDescriptor(Recording recording, String settings) {
+            this.id = recording.getId();
+            this.name = recording.getName();
+            this.settings = settings;
+            this.state = recording.getState();
+            this.startTime = recording.getStartTime();
+            this.duration = recording.getDuration();
+            this.size = recording.getSize();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSettings() {
+            return settings;
+        }
+
+        public RecordingState getState() {
+            return state;
+        }
+
+        public Instant getStartTime() {
+            return startTime;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * File deleted once it has been downloaded, like Spring Boot's heap dumps.
+     */
+    private static final class TemporaryFileSystemResource extends FileSystemResource {
+
+        private TemporaryFileSystemResource(File file) {
+            super(file);
+        }
+
+        @Override
+        public boolean isFile() {
+            // Prevent zero-copy so we can delete the file on close
+            return false;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
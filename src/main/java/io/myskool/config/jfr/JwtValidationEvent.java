@@ -0,0 +1,22 @@
+package io.myskool.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded for each JWT validation, without stack trace as it runs on every authenticated request.
+ */
+@Name("io.myskool.JwtValidation")
+@Label("JWT Validation")
+@Description("Validation of the JWT of a request")
+@Category({ "Myskool", "Security" })
+@StackTrace(false)
+public class JwtValidationEvent extends Event {
+
+    @Label("Valid")
+    public boolean valid;
+}
@@ -0,0 +1,27 @@
+package io.myskool.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded for each password hashed or checked by the {@link RecordingPasswordEncoder}.
+ */
+@Name("io.myskool.PasswordEncoder")
+@Label("Password Encoder")
+@Description("Password hashed or checked against its hash")
+@Category({ "Myskool", "Security" })
+public class PasswordEncoderEvent extends Event {
+
+    public static final String ENCODE = "encode";
+
+    public static final String MATCHES = "matches";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Matched")
+    public boolean matched;
+}
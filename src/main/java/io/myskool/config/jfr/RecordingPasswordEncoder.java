@@ -0,0 +1,45 @@
+package io.myskool.config.jfr;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} recording a {@link PasswordEncoderEvent} around each call to the encoder it wraps.
+ */
+public class RecordingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public RecordingPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordEncoderEvent event = new PasswordEncoderEvent();
+        event.begin();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            event.operation = PasswordEncoderEvent.ENCODE;
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordEncoderEvent event = new PasswordEncoderEvent();
+        event.begin();
+        try {
+            event.matched = delegate.matches(rawPassword, encodedPassword);
+            return event.matched;
+        } finally {
+            event.operation = PasswordEncoderEvent.MATCHES;
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
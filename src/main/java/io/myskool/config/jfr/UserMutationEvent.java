@@ -0,0 +1,37 @@
+package io.myskool.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded for each user mutation of the {@link io.myskool.service.UserService}, by the
+ * {@link io.myskool.aop.jfr.UserMutationEventAspect}.
+ */
+@Name("io.myskool.UserMutation")
+@Label("User Mutation")
+@Description("User created, updated or deleted by the UserService")
+@Category({ "Myskool", "Users" })
+public class UserMutationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    public UserMutationEvent(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Creates the event of an operation, and starts its timing.
+     *
+     * @param operation the name of the operation.
+     * @return the started event, to commit once the operation is done.
+     */
+    public static UserMutationEvent start(String operation) {
+        UserMutationEvent event = new UserMutationEvent(operation);
+        event.begin();
+        return event;
+    }
+}
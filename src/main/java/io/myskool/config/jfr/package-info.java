@@ -0,0 +1,4 @@
+/**
+ * Java Flight Recorder events and recording management.
+ */
+package io.myskool.config.jfr;
@@ -0,0 +1,72 @@
+package io.myskool.config.liquibase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+/**
+ * Version of the Liquibase changelog shipped with the application: a digest of the files under
+ * {@code config/liquibase}, so that any changed or added changeSet changes it.
+ * <p>
+ * Computing it only reads a few small files: it is much cheaper than parsing the changelog and checking the checksum
+ * of each changeSet against the database.
+ */
+public final class ChangelogVersion {
+
+    private static final String LOCATION = "config/liquibase/";
+
+    private static final String PREFIX = "changelog-";
+
+    private static final int DIGEST_BYTES = 8;
+
+    private ChangelogVersion() {}
+
+    /**
+     * @return the version of the changelog on the classpath, such as {@code changelog-3f2a9c0e1b7d4a65}.
+     */
+    public static String current() {
+        return of(new PathMatchingResourcePatternResolver(ChangelogVersion.class.getClassLoader()));
+    }
+
+    static String of(ResourcePatternResolver resolver) {
+        try {
+            // Sorted by path, the first resource of a path on the classpath wins, as for the class loader
+            Map<String, Resource> files = new TreeMap<>();
+            for (Resource resource : resolver.getResources(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + LOCATION + "**/*.*")) {
+                String url = resource.getURL().toString();
+                if (resource.isReadable()) {
+                    files.putIfAbsent(url.substring(url.lastIndexOf(LOCATION)), resource);
+                }
+            }
+            if (files.isEmpty()) {
+                throw new IllegalStateException("No Liquibase changelog found in classpath:" + LOCATION);
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, Resource> file : files.entrySet()) {
+                digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                try (InputStream in = file.getValue().getInputStream()) {
+                    digest.update(in.readAllBytes());
+                }
+            }
+            StringBuilder version = new StringBuilder(PREFIX);
+            byte[] hash = digest.digest();
+            for (int i = 0; i < DIGEST_BYTES; i++) {
+                version.append(String.format("%02x", hash[i]));
+            }
+            return version.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the Liquibase changelog", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.myskool.config.liquibase;
+
+import java.util.List;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * Checks at startup that the database was migrated to the {@link ChangelogVersion} of the application, with a single
+ * query on the Liquibase changelog table instead of running Liquibase: no changelog parsing, no checksums, and no
+ * {@code DATABASECHANGELOGLOCK} contention between the instances of a rolling restart.
+ * <p>
+ * The last applied changeSet must carry the tag set by {@link TaggingSpringLiquibase}, otherwise the application fails
+ * to start, as it would serve a schema it does not know.
+ */
+public class SchemaVersionVerifier implements InitializingBean {
+
+    private final Logger log = LoggerFactory.getLogger(SchemaVersionVerifier.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String changeLogTable;
+
+    private final String version;
+
+    public SchemaVersionVerifier(DataSource dataSource, String schema, String changeLogTable, String version) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setMaxRows(1);
+        this.changeLogTable = StringUtils.hasText(schema) ? schema + '.' + changeLogTable : changeLogTable;
+        this.version = version;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String tag = currentVersion();
+        if (!version.equals(tag)) {
+            throw new IllegalStateException(
+                "The database schema is at version " +
+                tag +
+                " but the application expects " +
+                version +
+                ", run the application with the 'migrate' profile first"
+            );
+        }
+        log.info("Database schema verified at version {}", version);
+    }
+
+    /**
+     * @return the tag of the last applied changeSet, or {@code null} if it has none or no changeSet was applied.
+     */
+    public String currentVersion() {
+        try {
+            List<String> tags = jdbcTemplate.queryForList(
+                "SELECT TAG FROM " + changeLogTable + " ORDER BY DATEEXECUTED DESC, ORDEREXECUTED DESC",
+                String.class
+            );
+            return tags.isEmpty() ? null : tags.get(0);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Could not read the database schema version from " + changeLogTable, e);
+        }
+    }
+
+    public String getVersion() {
+        return version;
+    }
+}
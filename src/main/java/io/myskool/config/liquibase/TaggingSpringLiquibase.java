@@ -0,0 +1,50 @@
+package io.myskool.config.liquibase;
+
+import java.util.concurrent.Executor;
+import liquibase.Liquibase;
+import liquibase.exception.LiquibaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import tech.jhipster.config.liquibase.AsyncSpringLiquibase;
+
+/**
+ * {@link AsyncSpringLiquibase} tagging the database with the {@link ChangelogVersion} once the changelog is applied,
+ * for the {@link SchemaVersionVerifier} of the instances started in {@code verify} mode.
+ * <p>
+ * When migrating only, the changelog is always applied synchronously, as the application exits right after.
+ */
+public class TaggingSpringLiquibase extends AsyncSpringLiquibase {
+
+    private final Logger log = LoggerFactory.getLogger(TaggingSpringLiquibase.class);
+
+    private final String version;
+
+    private final boolean synchronous;
+
+    public TaggingSpringLiquibase(Executor executor, Environment env, String version, boolean synchronous) {
+        super(executor, env);
+        this.version = version;
+        this.synchronous = synchronous;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (synchronous && shouldRun) {
+            initDb();
+        } else {
+            super.afterPropertiesSet();
+        }
+    }
+
+    @Override
+    protected void performUpdate(Liquibase liquibase) throws LiquibaseException {
+        super.performUpdate(liquibase);
+        liquibase.tag(version);
+        log.info("Database schema tagged with {}", version);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Launch modes of the Liquibase migrations.
+ */
+package io.myskool.config.liquibase;
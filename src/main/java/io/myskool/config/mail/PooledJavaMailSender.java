@@ -0,0 +1,181 @@
+package io.myskool.config.mail;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import javax.mail.Address;
+import javax.mail.AuthenticationFailedException;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * {@link JavaMailSenderImpl} keeping its SMTP connections open between sends.
+ * <p>
+ * The default implementation connects, authenticates and disconnects for every call to {@code send}, and checks the
+ * connection with a {@code NOOP} before every message. This one borrows a connection from a pool for each call,
+ * sends all the messages of the call over it, and gives it back to the pool afterwards. A pooled connection is
+ * checked once when borrowed, and closed once idle for longer than the idle timeout, which should stay below the
+ * server's own timeout.
+ * <p>
+ * The pool size bounds the number of idle connections kept open: concurrent sends beyond it open extra connections,
+ * which are closed instead of being returned to a full pool.
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(PooledJavaMailSender.class);
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final int poolSize;
+
+    private final long idleTimeoutNanos;
+
+    private final Deque<PooledTransport> idleTransports = new LinkedList<>();
+
+    private boolean closed;
+
+    public PooledJavaMailSender(int poolSize, Duration idleTimeout) {
+        this.poolSize = poolSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        Transport transport = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                if (transport == null) {
+                    try {
+                        transport = borrowTransport();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (Exception ex) {
+                        // Effectively, all remaining messages failed...
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(original(mimeMessages, originalMessages, j), ex);
+                        }
+                        throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                    }
+                }
+                MimeMessage mimeMessage = mimeMessages[i];
+                try {
+                    if (mimeMessage.getSentDate() == null) {
+                        mimeMessage.setSentDate(new Date());
+                    }
+                    String messageId = mimeMessage.getMessageID();
+                    mimeMessage.saveChanges();
+                    if (messageId != null) {
+                        // Preserve explicitly specified message id...
+                        mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+                    }
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    transport.sendMessage(mimeMessage, (addresses != null ? addresses : new Address[0]));
+                } catch (Exception ex) {
+                    failedMessages.put(original(mimeMessages, originalMessages, i), ex);
+                    if (!transport.isConnected()) {
+                        // The server dropped the connection: reconnect for the remaining messages
+                        closeQuietly(transport);
+                        transport = null;
+                    }
+                }
+            }
+        } finally {
+            if (transport != null) {
+                releaseTransport(transport);
+            }
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    private Transport borrowTransport() throws MessagingException {
+        long now = System.nanoTime();
+        PooledTransport pooled;
+        while ((pooled = pollIdleTransport()) != null) {
+            if (now - pooled.releasedAt > idleTimeoutNanos) {
+                log.debug("Closing SMTP connection idle for more than {}ms", idleTimeoutNanos / 1_000_000);
+                closeQuietly(pooled.transport);
+            } else if (pooled.transport.isConnected()) {
+                return pooled.transport;
+            } else {
+                closeQuietly(pooled.transport);
+            }
+        }
+        log.debug("Opening a new SMTP connection");
+        return connectTransport();
+    }
+
+    private synchronized PooledTransport pollIdleTransport() {
+        // Most recently used first, so that the older connections time out when the load drops
+        return idleTransports.pollFirst();
+    }
+
+    private void releaseTransport(Transport transport) {
+        synchronized (this) {
+            if (!closed && idleTransports.size() < poolSize) {
+                idleTransports.addFirst(new PooledTransport(transport, System.nanoTime()));
+                return;
+            }
+        }
+        closeQuietly(transport);
+    }
+
+    /**
+     * Closes the idle connections.
+     */
+    @Override
+    public void destroy() {
+        Deque<PooledTransport> transports;
+        synchronized (this) {
+            closed = true;
+            transports = new LinkedList<>(idleTransports);
+            idleTransports.clear();
+        }
+        transports.forEach(pooled -> closeQuietly(pooled.transport));
+    }
+
+    /**
+     * @return the number of idle connections currently kept open.
+     */
+    public synchronized int getIdleConnectionCount() {
+        return idleTransports.size();
+    }
+
+    private void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException | RuntimeException ex) {
+            log.debug("Failed to close SMTP connection: {}", ex.getMessage());
+        }
+    }
+
+    private static Object original(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages, int index) {
+        return originalMessages != null ? originalMessages[index] : mimeMessages[index];
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+
+        private final long releasedAt;
+
+        private PooledTransport(Transport transport, long releasedAt) {
+            this.transport = transport;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
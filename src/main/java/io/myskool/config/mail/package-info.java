@@ -0,0 +1,4 @@
+/**
+ * Mail sending configuration.
+ */
+package io.myskool.config.mail;
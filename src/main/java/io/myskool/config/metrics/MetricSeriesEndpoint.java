@@ -0,0 +1,90 @@
+package io.myskool.config.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.HistogramSupport;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Endpoint reporting the number of series of each meter, exposed as {@code /management/metricseries}.
+ * <p>
+ * A series is one exported time series: one per measurement of a meter, plus one per histogram bucket and
+ * client-side percentile of the timers and distribution summaries.
+ */
+@Endpoint(id = "metricseries")
+public class MetricSeriesEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    private final MetricsPolicyMeterFilter metricsPolicyMeterFilter;
+
+    public MetricSeriesEndpoint(MeterRegistry meterRegistry, MetricsPolicyMeterFilter metricsPolicyMeterFilter) {
+        this.meterRegistry = meterRegistry;
+        this.metricsPolicyMeterFilter = metricsPolicyMeterFilter;
+    }
+
+    @ReadOperation
+    public SeriesReport series() {
+        Map<String, Integer> seriesByName = new HashMap<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            seriesByName.merge(meter.getId().getName(), seriesCount(meter), Integer::sum);
+        }
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        seriesByName
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+            .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        int total = sorted.values().stream().mapToInt(Integer::intValue).sum();
+        return new SeriesReport(total, sorted, metricsPolicyMeterFilter.getCappedTags());
+    }
+
+    private static int seriesCount(Meter meter) {
+        int count = 0;
+        for (Object ignored : meter.measure()) {
+            count++;
+        }
+        if (meter instanceof HistogramSupport) {
+            HistogramSnapshot snapshot = ((HistogramSupport) meter).takeSnapshot();
+            count += snapshot.histogramCounts().length + snapshot.percentileValues().length;
+        }
+        return count;
+    }
+
+    /**
+     * Number of series, in total and by meter name from the largest.
+     */
+    public static final class SeriesReport {
+
+        private final int total;
+
+        private final Map<String, Integer> meters;
+
+        private final Set<String> cappedTags;
+
+        private SeriesReport(int total, Map<String, Integer> meters, Set<String> cappedTags) {
+            this.total = total;
+            this.meters = meters;
+            this.cappedTags = cappedTags;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public Map<String, Integer> getMeters() {
+            return meters;
+        }
+
+        public Set<String> getCappedTags() {
+            return cappedTags;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.myskool.config.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.myskool.config.ApplicationProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link MeterFilter} bounding the number of series exported for each meter.
+ * <ul>
+ *     <li>Only the meters whose name starts with one of the histogram prefixes publish a percentiles histogram and
+ *     client-side percentiles, every other timer and distribution summary only publishing its count, sum and max.</li>
+ *     <li>Each tag of a meter takes at most a maximum number of distinct values, which can be changed for some meters,
+ *     or lifted for the ones such as the method timers whose tags are already bounded, the values seen after it is
+ *     reached being replaced with {@value #OTHER}.</li>
+ * </ul>
+ */
+public class MetricsPolicyMeterFilter implements MeterFilter {
+
+    private final Logger log = LoggerFactory.getLogger(MetricsPolicyMeterFilter.class);
+
+    public static final String OTHER = "OTHER";
+
+    private final List<String> histogramPrefixes;
+
+    private final double[] percentiles;
+
+    private final int maxTagValues;
+
+    private final Map<String, Integer> maxTagValuesByMeter;
+
+    private final ConcurrentMap<String, Map<String, Set<String>>> tagValues = new ConcurrentHashMap<>();
+
+    private final Set<String> cappedTags = ConcurrentHashMap.newKeySet();
+
+    public MetricsPolicyMeterFilter(ApplicationProperties.Metrics properties) {
+        this.histogramPrefixes = List.copyOf(properties.getHistogramPrefixes());
+        this.percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        this.maxTagValues = properties.getMaxTagValues();
+        this.maxTagValuesByMeter = Map.copyOf(properties.getMaxTagValuesByMeter());
+    }
+
+    @Override
+    public Meter.Id map(Meter.Id id) {
+        List<Tag> tags = null;
+        int index = 0;
+        for (Tag tag : id.getTagsAsIterable()) {
+            if (!admit(id.getName(), tag)) {
+                if (tags == null) {
+                    tags = new ArrayList<>(id.getTags());
+                }
+                tags.set(index, Tag.of(tag.getKey(), OTHER));
+            }
+            index++;
+        }
+        return tags == null ? id : id.replaceTags(tags);
+    }
+
+    private boolean admit(String name, Tag tag) {
+        int max = maxTagValuesByMeter.getOrDefault(name, maxTagValues);
+        if (max < 0) {
+            return true;
+        }
+        Set<String> values = tagValues
+            .computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(tag.getKey(), key -> ConcurrentHashMap.newKeySet());
+        if (values.contains(tag.getValue())) {
+            return true;
+        }
+        if (values.size() < max) {
+            values.add(tag.getValue());
+            return true;
+        }
+        if (cappedTags.add(name + '.' + tag.getKey())) {
+            log.warn(
+                "Tag {} of meter {} reached {} distinct values, next values are recorded as {}",
+                tag.getKey(),
+                name,
+                max,
+                OTHER
+            );
+        }
+        return false;
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (hasHistogram(id.getName())) {
+            return DistributionStatisticConfig.builder().percentilesHistogram(true).percentiles(percentiles).build().merge(config);
+        }
+        return DistributionStatisticConfig.builder().percentilesHistogram(false).percentiles().build().merge(config);
+    }
+
+    private boolean hasHistogram(String name) {
+        for (String prefix : histogramPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the tags which reached their maximum number of values, as {@code meter.tag}.
+     */
+    public Set<String> getCappedTags() {
+        return Set.copyOf(cappedTags);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Micrometer metrics policy.
+ */
+package io.myskool.config.metrics;
@@ -0,0 +1,66 @@
+package io.myskool.config.sql;
+
+/**
+ * Thread-bound count of the JDBC statements executed by Hibernate, and of the time spent executing them.
+ * <p>
+ * A count is opened with {@link #start()} and must be closed with {@link #stop(Counts)}. Counts can be nested,
+ * statements executed while a nested count is open are recorded in all the enclosing counts too.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {}
+
+    /**
+     * Opens a count on the current thread.
+     *
+     * @return the opened count.
+     */
+    public static Counts start() {
+        Counts counts = new Counts(CURRENT.get());
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    /**
+     * Closes a count opened with {@link #start()}, restoring the enclosing one.
+     *
+     * @param counts the count to close.
+     */
+    public static void stop(Counts counts) {
+        if (counts.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(counts.parent);
+        }
+    }
+
+    static void record(long elapsedNanos) {
+        for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            counts.statements++;
+            counts.elapsedNanos += elapsedNanos;
+        }
+    }
+
+    public static final class Counts {
+
+        private final Counts parent;
+
+        private long statements;
+
+        private long elapsedNanos;
+
+        private Counts(Counts parent) {
+            this.parent = parent;
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.myskool.config.sql;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session listener feeding the {@link SqlStatementCounter}.
+ * <p>
+ * It is registered for every session with the {@code hibernate.session.events.auto} property.
+ */
+public class SqlStatementCountingListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.record(System.nanoTime() - executionStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.record(System.nanoTime() - executionStart);
+    }
+}
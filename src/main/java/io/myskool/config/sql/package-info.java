@@ -0,0 +1,4 @@
+/**
+ * SQL statement instrumentation.
+ */
+package io.myskool.config.sql;
@@ -0,0 +1,163 @@
+package io.myskool.config.startup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * Summary of the steps recorded by a {@link org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup}.
+ * <ul>
+ *     <li>{@code phases}: the time spent in each kind of step, such as {@code spring.context.refresh},
+ *     {@code spring.beans.instantiate} or {@code spring.data.repository.init}, from the longest. Steps nested in a
+ *     step of the same kind are not counted twice.</li>
+ *     <li>{@code slowestBeans}: the beans which took the longest to create, excluding the time spent creating their
+ *     dependencies.</li>
+ * </ul>
+ */
+public final class StartupReport {
+
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private static final String BEAN_NAME = "beanName";
+
+    private final Duration uptime;
+
+    private final Map<String, Phase> phases;
+
+    private final Map<String, Long> slowestBeans;
+
+    private StartupReport(Duration uptime, Map<String, Phase> phases, Map<String, Long> slowestBeans) {
+        this.uptime = uptime;
+        this.phases = phases;
+        this.slowestBeans = slowestBeans;
+    }
+
+    /**
+     * Summarizes a startup timeline.
+     *
+     * @param timeline the recorded steps.
+     * @param uptime the JVM uptime when the application became ready.
+     * @param beans the number of slowest beans to report.
+     * @return the report.
+     */
+    public static StartupReport of(StartupTimeline timeline, Duration uptime, int beans) {
+        Map<Long, StartupTimeline.TimelineEvent> events = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            events.put(event.getStartupStep().getId(), event);
+        }
+        Map<String, Phase> phases = new HashMap<>();
+        Map<Long, Long> childBeanNanos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events.values()) {
+            StartupStep step = event.getStartupStep();
+            if (!hasAncestorNamed(events, step, step.getName())) {
+                phases.computeIfAbsent(step.getName(), name -> new Phase()).add(event.getDuration());
+            }
+            if (BEAN_INSTANTIATE.equals(step.getName()) && step.getParentId() != null) {
+                childBeanNanos.merge(step.getParentId(), event.getDuration().toNanos(), Long::sum);
+            }
+        }
+        Map<String, Long> slowestBeans = events
+            .values()
+            .stream()
+            .filter(event -> BEAN_INSTANTIATE.equals(event.getStartupStep().getName()))
+            .map(event -> Map.entry(beanName(event.getStartupStep()), selfMillis(event, childBeanNanos)))
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(beans)
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Long::sum, LinkedHashMap::new));
+        Map<String, Phase> sortedPhases = phases
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.comparingByValue(Comparator.comparingLong(Phase::getMillis).reversed()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        return new StartupReport(uptime, sortedPhases, slowestBeans);
+    }
+
+    private static boolean hasAncestorNamed(Map<Long, StartupTimeline.TimelineEvent> events, StartupStep step, String name) {
+        Set<Long> visited = new HashSet<>();
+        Long parentId = step.getParentId();
+        while (parentId != null && visited.add(parentId)) {
+            StartupTimeline.TimelineEvent parent = events.get(parentId);
+            if (parent == null) {
+                return false;
+            }
+            if (name.equals(parent.getStartupStep().getName())) {
+                return true;
+            }
+            parentId = parent.getStartupStep().getParentId();
+        }
+        return false;
+    }
+
+    private static long selfMillis(StartupTimeline.TimelineEvent event, Map<Long, Long> childBeanNanos) {
+        long self = event.getDuration().toNanos() - childBeanNanos.getOrDefault(event.getStartupStep().getId(), 0L);
+        return Duration.ofNanos(self).toMillis();
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (BEAN_NAME.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "step-" + step.getId();
+    }
+
+    /**
+     * @return the JVM uptime when the application became ready, including the JVM startup and the warm-up.
+     */
+    public long getUptimeMillis() {
+        return uptime.toMillis();
+    }
+
+    public Map<String, Phase> getPhases() {
+        return phases;
+    }
+
+    /**
+     * @return the creation time in milliseconds of the slowest beans, by bean name.
+     */
+    public Map<String, Long> getSlowestBeans() {
+        return slowestBeans;
+    }
+
+    /**
+     * Time spent in a kind of step.
+     */
+    public static final class Phase {
+
+        private int count;
+
+        private Duration duration = Duration.ZERO;
+
+        private void add(Duration stepDuration) {
+            count++;
+            duration = duration.plus(stepDuration);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getMillis() {
+            return duration.toMillis();
+        }
+    }
+
+    /**
+     * @return the phases as lines of {@code name count time}, for logs.
+     */
+    public List<String> describePhases() {
+        List<String> lines = new ArrayList<>();
+        phases.forEach((name, phase) -> lines.add(String.format("%-50s %6d %8dms", name, phase.getCount(), phase.getMillis())));
+        return lines;
+    }
+}
@@ -0,0 +1,51 @@
+package io.myskool.config.startup;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Endpoint reporting the startup phases, exposed as {@code /management/startupreport}.
+ * <p>
+ * The report is built once the application is ready, after the other listeners of {@link ApplicationReadyEvent}
+ * such as the warm-up, and before Spring Boot's {@code /management/startup} endpoint can drain the recorded steps.
+ */
+@Endpoint(id = "startupreport")
+public class StartupReportEndpoint {
+
+    private final Logger log = LoggerFactory.getLogger(StartupReportEndpoint.class);
+
+    private static final int SLOWEST_BEANS = 20;
+
+    private final BufferingApplicationStartup applicationStartup;
+
+    private volatile StartupReport report;
+
+    public StartupReportEndpoint(BufferingApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onApplicationReady() {
+        Duration uptime = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+        report = StartupReport.of(applicationStartup.getBufferedTimeline(), uptime, SLOWEST_BEANS);
+        log.info("Application ready {}ms after the JVM started", report.getUptimeMillis());
+        if (log.isDebugEnabled()) {
+            log.debug("Startup phases:\n{}", String.join("\n", report.describePhases()));
+        }
+    }
+
+    @ReadOperation
+    public StartupReport startupReport() {
+        return report;
+    }
+}
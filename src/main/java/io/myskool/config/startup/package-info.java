@@ -0,0 +1,4 @@
+/**
+ * Startup time measurement.
+ */
+package io.myskool.config.startup;
@@ -0,0 +1,258 @@
+package io.myskool.config.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.myskool.config.ApplicationProperties;
+import io.myskool.domain.Authority;
+import io.myskool.domain.User;
+import io.myskool.repository.UserRepository;
+import io.myskool.security.AuthoritiesConstants;
+import io.myskool.security.jwt.TokenProvider;
+import io.myskool.service.dto.AdminUserDTO;
+import io.myskool.service.dto.UserDTO;
+import io.myskool.service.mapper.UserMapper;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Warms up the application once it is started, before it accepts traffic.
+ * <p>
+ * It runs synchronously on {@link ApplicationReadyEvent}, and Spring Boot only moves the readiness state to
+ * {@code ACCEPTING_TRAFFIC} once the listeners of this event have returned: until then the readiness probe reports
+ * the application as refusing traffic. The warm-up
+ * <ul>
+ *     <li>opens and validates the connections of each Hikari pool up to its minimum idle size,</li>
+ *     <li>creates, validates and parses JWTs,</li>
+ *     <li>maps synthetic users to their DTOs, and serializes and deserializes them,</li>
+ *     <li>runs the main user queries, which match no user, in read-only transactions.</li>
+ * </ul>
+ * Each step repeats its work for the configured iterations, the whole warm-up stopping at its timeout. The time of
+ * each step is logged and recorded to the {@code myskool.warmup} timer. A failing step is logged and skipped, as a
+ * cold application is better than none.
+ */
+public class WarmUpRunner {
+
+    private final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    /**
+     * Login which does not match {@link io.myskool.config.Constants#LOGIN_REGEX}, so no user can have it.
+     */
+    private static final String WARM_UP_LOGIN = "#warm-up";
+
+    private static final int SYNTHETIC_USERS = 20;
+
+    private final DataSource dataSource;
+
+    private final TokenProvider tokenProvider;
+
+    private final UserMapper userMapper;
+
+    private final UserRepository userRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.WarmUp properties;
+
+    public WarmUpRunner(
+        DataSource dataSource,
+        TokenProvider tokenProvider,
+        UserMapper userMapper,
+        UserRepository userRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        ApplicationProperties.WarmUp properties
+    ) {
+        this.dataSource = dataSource;
+        this.tokenProvider = tokenProvider;
+        this.userMapper = userMapper;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    public void onApplicationReady() {
+        warmUp();
+    }
+
+    /**
+     * Runs each warm-up step.
+     *
+     * @return the time of each step.
+     */
+    public Map<String, Duration> warmUp() {
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        Map<String, Duration> report = new LinkedHashMap<>();
+        step(report, "hikari", deadline, this::warmUpPools);
+        step(report, "jwt", deadline, this::warmUpJwt);
+        step(report, "serialization", deadline, this::warmUpSerialization);
+        step(report, "repositories", deadline, this::warmUpRepositories);
+        log.info(
+            "Warm-up done in {}ms: {}",
+            report.values().stream().mapToLong(Duration::toMillis).sum(),
+            report
+                .entrySet()
+                .stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().toMillis() + "ms")
+                .collect(Collectors.joining(", "))
+        );
+        return report;
+    }
+
+    private void step(Map<String, Duration> report, String name, long deadline, WarmUpStep step) {
+        long start = System.nanoTime();
+        try {
+            int iterations = step.run(deadline);
+            log.debug("Warm-up step {} ran {} iterations", name, iterations);
+        } catch (Exception e) {
+            log.warn("Warm-up step {} failed: {}", name, e.getMessage());
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        Timer.builder("myskool.warmup").description("Time of the warm-up steps").tag("step", name).register(meterRegistry).record(duration);
+        report.put(name, duration);
+    }
+
+    private int warmUpPools(long deadline) throws SQLException {
+        int opened = 0;
+        for (HikariDataSource pool : hikariPools(dataSource)) {
+            List<Connection> connections = new ArrayList<>();
+            try {
+                // Held together so that each one is a new connection of the pool
+                while (connections.size() < pool.getMinimumIdle() && System.nanoTime() < deadline) {
+                    Connection connection = pool.getConnection();
+                    connections.add(connection);
+                    connection.isValid(1);
+                }
+                opened += connections.size();
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+        }
+        return opened;
+    }
+
+    private static List<HikariDataSource> hikariPools(DataSource dataSource) throws SQLException {
+        List<HikariDataSource> pools = new ArrayList<>();
+        if (dataSource instanceof HikariDataSource) {
+            pools.add((HikariDataSource) dataSource);
+        } else if (dataSource instanceof DelegatingDataSource) {
+            pools.addAll(hikariPools(((DelegatingDataSource) dataSource).getTargetDataSource()));
+        } else if (dataSource instanceof AbstractRoutingDataSource) {
+            for (DataSource target : ((AbstractRoutingDataSource) dataSource).getResolvedDataSources().values()) {
+                pools.addAll(hikariPools(target));
+            }
+        } else if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            pools.add(dataSource.unwrap(HikariDataSource.class));
+        }
+        return pools;
+    }
+
+    private int warmUpJwt(long deadline) {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            WARM_UP_LOGIN,
+            "",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        int i = 0;
+        for (; i < properties.getIterations() && System.nanoTime() < deadline; i++) {
+            String token = tokenProvider.createToken(authentication, i % 2 == 0);
+            if (tokenProvider.validateTokenUnrecorded(token)) {
+                tokenProvider.getAuthentication(token);
+            }
+        }
+        return i;
+    }
+
+    private int warmUpSerialization(long deadline) throws Exception {
+        List<User> users = syntheticUsers();
+        int i = 0;
+        for (; i < properties.getIterations() && System.nanoTime() < deadline; i++) {
+            List<AdminUserDTO> adminUsers = userMapper.usersToAdminUserDTOs(users);
+            List<UserDTO> publicUsers = userMapper.usersToUserDTOs(users);
+            byte[] json = objectMapper.writeValueAsBytes(adminUsers.get(i % SYNTHETIC_USERS));
+            objectMapper.writeValueAsBytes(adminUsers);
+            objectMapper.writeValueAsBytes(publicUsers);
+            userMapper.userDTOToUser(objectMapper.readValue(json, AdminUserDTO.class));
+        }
+        return i;
+    }
+
+    private static List<User> syntheticUsers() {
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        List<User> users = new ArrayList<>(SYNTHETIC_USERS);
+        for (int i = 0; i < SYNTHETIC_USERS; i++) {
+            User user = new User();
+            user.setId((long) -i);
+            user.setLogin("warm-up-" + i);
+            user.setFirstName("Warm");
+            user.setLastName("Up");
+            user.setEmail("warm-up-" + i + "@localhost");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setCreatedBy(WARM_UP_LOGIN);
+            user.setCreatedDate(Instant.now());
+            user.setAuthorities(Set.of(authority));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private int warmUpRepositories(long deadline) {
+        int i = 0;
+        for (; i < properties.getIterations() && System.nanoTime() < deadline; i++) {
+            readOnlyTransaction.executeWithoutResult(
+                status -> {
+                    userRepository.findOneByLogin(WARM_UP_LOGIN);
+                    userRepository.findOneWithAuthoritiesByLogin(WARM_UP_LOGIN);
+                    userRepository.findOneByEmailIgnoreCase(WARM_UP_LOGIN);
+                    userRepository.findAllUniqueKeysByLoginOrEmail(WARM_UP_LOGIN, WARM_UP_LOGIN);
+                    userRepository.findAll(PageRequest.of(0, 1)).getTotalElements();
+                    userRepository.findAllByIdNotNullAndActivatedIsTrue(PageRequest.of(0, 1));
+                }
+            );
+        }
+        return i;
+    }
+
+    @FunctionalInterface
+    private interface WarmUpStep {
+        int run(long deadline) throws Exception;
+    }
+}
@@ -0,0 +1,232 @@
+package io.myskool.domain;
+
+import io.myskool.domain.enumeration.MailOutboxStatus;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import org.hibernate.annotations.Type;
+
+/**
+ * An email waiting in the outbox.
+ * <p>
+ * Messages are written in the transaction of the change that triggers them, and sent later by the
+ * {@link io.myskool.service.MailOutboxDispatcher}. Template emails only reference the user, template and title key:
+ * they are rendered when dispatched, so that they always reflect the committed state of the user.
+ */
+@Entity
+@Table(name = "mail_outbox")
+public class MailOutboxMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Size(max = 254)
+    @Column(name = "recipient", length = 254, nullable = false)
+    private String recipient;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Size(max = 100)
+    @Column(name = "template_name", length = 100)
+    private String templateName;
+
+    @Size(max = 100)
+    @Column(name = "title_key", length = 100)
+    private String titleKey;
+
+    @Size(max = 255)
+    @Column(name = "subject")
+    private String subject;
+
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "content")
+    private String content;
+
+    @NotNull
+    @Column(name = "multipart", nullable = false)
+    private boolean multipart;
+
+    @NotNull
+    @Column(name = "html", nullable = false)
+    private boolean html;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_date", nullable = false)
+    private Instant nextAttemptDate;
+
+    @Size(max = 500)
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public void setTemplateName(String templateName) {
+        this.templateName = templateName;
+    }
+
+    public String getTitleKey() {
+        return titleKey;
+    }
+
+    public void setTitleKey(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isMultipart() {
+        return multipart;
+    }
+
+    public void setMultipart(boolean multipart) {
+        this.multipart = multipart;
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    public void setHtml(boolean html) {
+        this.html = html;
+    }
+
+    public MailOutboxStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(MailOutboxStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptDate() {
+        return nextAttemptDate;
+    }
+
+    public void setNextAttemptDate(Instant nextAttemptDate) {
+        this.nextAttemptDate = nextAttemptDate;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    /**
+     * @return {@code true} if the message is rendered from a template when dispatched.
+     */
+    public boolean isTemplate() {
+        return templateName != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MailOutboxMessage)) {
+            return false;
+        }
+        return id != null && id.equals(((MailOutboxMessage) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MailOutboxMessage{" +
+            "id=" + id +
+            ", recipient='" + recipient + '\'' +
+            ", templateName='" + templateName + '\'' +
+            ", subject='" + subject + '\'' +
+            ", status='" + status + '\'' +
+            ", attempts=" + attempts +
+            ", nextAttemptDate='" + nextAttemptDate + '\'' +
+            "}";
+    }
+}
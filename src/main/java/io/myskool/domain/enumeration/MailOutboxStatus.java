@@ -0,0 +1,12 @@
+package io.myskool.domain.enumeration;
+
+/**
+ * The MailOutboxStatus enumeration.
+ * <p>
+ * Sent messages are deleted from the outbox, so only messages waiting to be sent and messages that exhausted
+ * their attempts have a status.
+ */
+public enum MailOutboxStatus {
+    PENDING,
+    DEAD,
+}
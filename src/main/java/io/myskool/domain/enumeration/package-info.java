@@ -0,0 +1,4 @@
+/**
+ * JPA domain enumerations.
+ */
+package io.myskool.domain.enumeration;
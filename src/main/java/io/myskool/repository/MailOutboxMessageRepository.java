@@ -0,0 +1,53 @@
+package io.myskool.repository;
+
+import io.myskool.domain.MailOutboxMessage;
+import io.myskool.domain.enumeration.MailOutboxStatus;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutboxMessage} entity.
+ */
+@Repository
+public interface MailOutboxMessageRepository extends JpaRepository<MailOutboxMessage, Long> {
+    /**
+     * Locks the oldest messages due for sending, skipping the ones already locked by another dispatcher
+     * ({@code FOR UPDATE SKIP LOCKED} on PostgreSQL, a timeout of {@code -2} being Hibernate's {@code LockOptions.SKIP_LOCKED}).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<MailOutboxMessage> findByStatusAndNextAttemptDateLessThanEqualOrderByIdAsc(
+        MailOutboxStatus status,
+        Instant dateTime,
+        Pageable pageable
+    );
+
+    /**
+     * Locks the messages still leased until the given date, the lease end being the token of the dispatcher which claimed
+     * them: the messages claimed again by another dispatcher, once the lease expired, are left out.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<MailOutboxMessage> findAllByIdInAndNextAttemptDate(Collection<Long> ids, Instant leaseEnd);
+
+    /**
+     * Deletes the messages still leased until the given date, see {@link #findAllByIdInAndNextAttemptDate}.
+     *
+     * @return the number of messages deleted.
+     */
+    @Modifying
+    @Query("delete from MailOutboxMessage message where message.id in :ids and message.nextAttemptDate = :leaseEnd")
+    int deleteAllByIdInAndNextAttemptDate(@Param("ids") Collection<Long> ids, @Param("leaseEnd") Instant leaseEnd);
+
+    long countByStatus(MailOutboxStatus status);
+}
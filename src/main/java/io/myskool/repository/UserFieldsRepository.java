@@ -0,0 +1,43 @@
+package io.myskool.repository;
+
+import io.myskool.domain.User;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Reads of some fields of the {@link User}s only, for the clients which do not need the others.
+ */
+public interface UserFieldsRepository {
+    /**
+     * The fields of a {@link User} which can be read, named as its properties and as those of the user DTOs.
+     */
+    Set<String> FIELDS = Set.of(
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "imageUrl",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate",
+        "authorities"
+    );
+
+    /**
+     * Get a page of users, selecting only the columns of the given fields.
+     * <p>
+     * The {@code authorities} field holds the names of the authorities of the user, read for the whole page with a
+     * second query, only when it is requested.
+     *
+     * @param fields the fields to read, from {@link #FIELDS}.
+     * @param pageable the pagination information.
+     * @return the page of users, each one mapping the names of the fields to their values, in the order of the fields.
+     */
+    Page<Map<String, Object>> findAllFields(Set<String> fields, Pageable pageable);
+}
@@ -0,0 +1,106 @@
+package io.myskool.repository;
+
+import io.myskool.domain.Authority;
+import io.myskool.domain.User;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Implementation of {@link UserFieldsRepository}, with tuple queries on the selected columns.
+ */
+public class UserFieldsRepositoryImpl implements UserFieldsRepository {
+
+    private static final String ID = "id";
+
+    private static final String AUTHORITIES = "authorities";
+
+    private final EntityManager entityManager;
+
+    public UserFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<Map<String, Object>> findAllFields(Set<String> fields, Pageable pageable) {
+        if (!FIELDS.containsAll(fields)) {
+            throw new IllegalArgumentException("Unknown user fields in " + fields);
+        }
+        boolean withAuthorities = fields.contains(AUTHORITIES);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            if (!AUTHORITIES.equals(field)) {
+                selections.add(user.get(field).alias(field));
+            }
+        }
+        if (withAuthorities && !fields.contains(ID)) {
+            // The authorities of the page are matched on the ids
+            selections.add(user.get(ID).alias(ID));
+        }
+        query.multiselect(selections).orderBy(QueryUtils.toOrders(pageable.getSort(), user, cb));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<Tuple> tuples = typedQuery.getResultList();
+        Map<Long, Set<String>> authorities = withAuthorities ? findAuthorities(tuples) : Map.of();
+
+        List<Map<String, Object>> users = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                values.put(
+                    field,
+                    AUTHORITIES.equals(field) ? authorities.getOrDefault(tuple.get(ID, Long.class), Set.of()) : tuple.get(field)
+                );
+            }
+            users.add(values);
+        }
+        return PageableExecutionUtils.getPage(users, pageable, this::count);
+    }
+
+    private Map<Long, Set<String>> findAuthorities(List<Tuple> tuples) {
+        if (tuples.isEmpty()) {
+            return Map.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        Join<User, Authority> authority = user.join(AUTHORITIES);
+        query
+            .multiselect(user.get(ID), authority.get("name"))
+            .where(user.get(ID).in(tuples.stream().map(tuple -> tuple.get(ID, Long.class)).collect(Collectors.toList())));
+        Map<Long, Set<String>> authorities = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            authorities.computeIfAbsent(tuple.get(0, Long.class), id -> new HashSet<>()).add(tuple.get(1, String.class));
+        }
+        return authorities;
+    }
+
+    private long count() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        query.select(cb.count(query.from(User.class)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
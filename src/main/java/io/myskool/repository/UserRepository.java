@@ -9,17 +9,43 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Data JPA repository for the {@link User} entity.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserFieldsRepository {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
 
+    String LOGIN_UNIQUE_CONSTRAINT = "ux_user_login";
+
+    String EMAIL_UNIQUE_CONSTRAINT = "ux_user_email";
+
+    /**
+     * Users read from a lagging replica can be older than their latest update, and its cache eviction: they are not cached.
+     * The cached lookups are hence read-write, for their own transactions to run on the primary.
+     */
+    String UNLESS_ROUTED_TO_REPLICA = "T(io.myskool.config.datasource.ReplicaRoutingDataSource).isCurrentTransactionRoutedToReplica()";
+
+    /**
+     * The unique keys of a {@link User}, read without loading the entity.
+     */
+    interface UniqueKeys {
+        Long getId();
+
+        String getLogin();
+
+        String getEmail();
+
+        boolean isActivated();
+    }
+
     Optional<User> findOneByActivationKey(String activationKey);
 
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
@@ -30,12 +56,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findOneByLogin(String login);
 
+    /**
+     * Get the users using a login or an email, with a single query.
+     *
+     * @param login the login, in lower case.
+     * @param email the email, in lower case, or {@code null}.
+     * @return the unique keys of the users using the login or the email.
+     */
+    @Query(
+        "select u.id as id, u.login as login, u.email as email, u.activated as activated from User u " +
+        "where u.login = :login or lower(u.email) = :email"
+    )
+    List<UniqueKeys> findAllUniqueKeysByLoginOrEmail(@Param("login") String login, @Param("email") String email);
+
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
+    @Transactional
+    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, unless = UNLESS_ROUTED_TO_REPLICA)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
+    @Transactional
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, unless = UNLESS_ROUTED_TO_REPLICA)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
@@ -0,0 +1,83 @@
+package io.myskool.security;
+
+import io.myskool.domain.User;
+import io.myskool.repository.UserRepository;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the {@link User} of the current user, with its authorities, for the controllers and services of a request.
+ * <p>
+ * The user is loaded at most once per request and kept in a request attribute, as long as the login of the current
+ * user does not change. Outside of a request, such as in scheduled tasks, it is loaded on each call.
+ */
+@Component
+public class CurrentUserResolver {
+
+    private static final String ATTRIBUTE = CurrentUserResolver.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+
+    private final EntityManager entityManager;
+
+    public CurrentUserResolver(UserRepository userRepository, EntityManager entityManager) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Get the current user.
+     *
+     * @return the current user, possibly detached, or empty if the user is not authenticated or does not exist.
+     */
+    public Optional<User> getCurrentUser() {
+        Optional<String> login = SecurityUtils.getCurrentUserLogin();
+        if (login.isEmpty()) {
+            return Optional.empty();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return userRepository.findOneWithAuthoritiesByLogin(login.get());
+        }
+        ResolvedUser resolved = (ResolvedUser) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved == null || !resolved.login.equals(login.get())) {
+            resolved = new ResolvedUser(login.get(), userRepository.findOneWithAuthoritiesByLogin(login.get()));
+            attributes.setAttribute(ATTRIBUTE, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+        return resolved.user;
+    }
+
+    /**
+     * Get the current user, managed by the persistence context of the current transaction so that its changes are
+     * saved. This must be called in a transaction.
+     * <p>
+     * The user already resolved for the request is reused if it was loaded in the current transaction, and found again
+     * by id otherwise: services updating the current user should hence resolve it once, in their transaction.
+     *
+     * @return the current user, or empty if the user is not authenticated or does not exist.
+     */
+    public Optional<User> getCurrentUserForUpdate() {
+        Optional<User> user = getCurrentUser()
+            .flatMap(resolved -> entityManager.contains(resolved) ? Optional.of(resolved) : userRepository.findById(resolved.getId()));
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && user.isPresent()) {
+            attributes.setAttribute(ATTRIBUTE, new ResolvedUser(user.get().getLogin(), user), RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    private static final class ResolvedUser {
+
+        private final String login;
+
+        private final Optional<User> user;
+
+        private ResolvedUser(String login, Optional<User> user) {
+            this.login = login;
+            this.user = user;
+        }
+    }
+}
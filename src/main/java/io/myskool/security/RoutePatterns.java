@@ -0,0 +1,20 @@
+package io.myskool.security;
+
+/**
+ * Constants for the Ant patterns of the paths secured by Spring Security, shared with the filters grouping the
+ * requests so that the groups stay consistent with the security rules.
+ */
+public final class RoutePatterns {
+
+    public static final String ADMIN = "/api/admin/**";
+
+    public static final String AUTHENTICATE = "/api/authenticate";
+
+    public static final String REGISTER = "/api/register";
+
+    public static final String ACTIVATE = "/api/activate";
+
+    public static final String ACCOUNT = "/api/account/**";
+
+    private RoutePatterns() {}
+}
@@ -1,5 +1,6 @@
 package io.myskool.security;
 
+import io.myskool.config.errors.BusinessExceptions;
 import org.springframework.security.core.AuthenticationException;
 
 /**
@@ -16,4 +17,9 @@ public class UserNotActivatedException extends AuthenticationException {
     public UserNotActivatedException(String message, Throwable t) {
         super(message, t);
     }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return BusinessExceptions.fillInStackTrace(this, super::fillInStackTrace);
+    }
 }
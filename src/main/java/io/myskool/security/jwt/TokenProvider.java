@@ -3,9 +3,13 @@ package io.myskool.security.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.myskool.config.jfr.JwtValidationEvent;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,7 +37,11 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final Timer validTokenTimer;
+
+    private final Timer invalidTokenTimer;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, MeterRegistry meterRegistry) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -51,6 +59,16 @@ public class TokenProvider {
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+        this.validTokenTimer = validationTimer(meterRegistry, true);
+        this.invalidTokenTimer = validationTimer(meterRegistry, false);
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, boolean valid) {
+        return Timer
+            .builder("myskool.jwt.validation")
+            .description("Validation time of the JWT of the requests")
+            .tag("valid", String.valueOf(valid))
+            .register(meterRegistry);
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -88,6 +106,30 @@ public class TokenProvider {
     }
 
     public boolean validateToken(String authToken) {
+        JwtValidationEvent event = new JwtValidationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            event.valid = isValid(authToken);
+            return event.valid;
+        } finally {
+            (event.valid ? validTokenTimer : invalidTokenTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.commit();
+        }
+    }
+
+    /**
+     * Validate a token like {@link #validateToken(String)}, without recording it in the validation meters and events,
+     * for the validations which are not of a request, such as the warm-up.
+     *
+     * @param authToken the token.
+     * @return whether the token is valid.
+     */
+    public boolean validateTokenUnrecorded(String authToken) {
+        return isValid(authToken);
+    }
+
+    private boolean isValid(String authToken) {
         try {
             jwtParser.parseClaimsJws(authToken);
             return true;
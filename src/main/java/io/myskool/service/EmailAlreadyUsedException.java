@@ -1,6 +1,8 @@
 package io.myskool.service;
 
-public class EmailAlreadyUsedException extends RuntimeException {
+import io.myskool.config.errors.BusinessException;
+
+public class EmailAlreadyUsedException extends BusinessException {
 
     private static final long serialVersionUID = 1L;
 
@@ -1,6 +1,8 @@
 package io.myskool.service;
 
-public class InvalidPasswordException extends RuntimeException {
+import io.myskool.config.errors.BusinessException;
+
+public class InvalidPasswordException extends BusinessException {
 
     private static final long serialVersionUID = 1L;
 
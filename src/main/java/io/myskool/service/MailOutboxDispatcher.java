@@ -0,0 +1,448 @@
+package io.myskool.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.myskool.config.ApplicationProperties;
+import io.myskool.domain.MailOutboxMessage;
+import io.myskool.domain.User;
+import io.myskool.domain.enumeration.MailOutboxStatus;
+import io.myskool.repository.MailOutboxMessageRepository;
+import io.myskool.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the emails queued in the outbox by the {@link MailService}.
+ * <p>
+ * Each run claims a batch of due messages, renders them and sends the whole batch over a single SMTP connection.
+ * When polling, batches go through two stages: they are rendered on the {@code mailRenderExecutor}, sized for CPU-bound
+ * work, then handed over through its bounded queue to the {@code mailTransportExecutor}, sized for the SMTP
+ * connections. A full transport queue blocks the render stage, and batches are only claimed while the render queue
+ * has room for them, so a slow mail server slows down the polling instead of piling up rendered emails.
+ * Claimed messages are leased rather than kept locked while sending, so that the database transactions stay short:
+ * if the dispatcher dies before acknowledging a batch, it is retried once the lease expires. The end of the lease is the
+ * token of the claim: a batch is only acknowledged, or released, for the messages which were not claimed again by
+ * another dispatcher meanwhile. Failed messages are
+ * retried with an exponential backoff, and dead-lettered once they exhausted their attempts or cannot be rendered.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    private final UserRepository userRepository;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final JavaMailSender javaMailSender;
+
+    private final MailTemplateRenderer mailTemplateRenderer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ThreadPoolTaskExecutor mailRenderExecutor;
+
+    private final ThreadPoolTaskExecutor mailTransportExecutor;
+
+    private final ApplicationProperties.Mail.Outbox outboxProperties;
+
+    private final Counter sentCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter deadCounter;
+
+    private final Timer lagTimer;
+
+    public MailOutboxDispatcher(
+        MailOutboxMessageRepository mailOutboxMessageRepository,
+        UserRepository userRepository,
+        JHipsterProperties jHipsterProperties,
+        JavaMailSender javaMailSender,
+        MailTemplateRenderer mailTemplateRenderer,
+        PlatformTransactionManager transactionManager,
+        TaskScheduler taskScheduler,
+        @Qualifier("mailRenderExecutor") ThreadPoolTaskExecutor mailRenderExecutor,
+        @Qualifier("mailTransportExecutor") ThreadPoolTaskExecutor mailTransportExecutor,
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
+        this.userRepository = userRepository;
+        this.jHipsterProperties = jHipsterProperties;
+        this.javaMailSender = javaMailSender;
+        this.mailTemplateRenderer = mailTemplateRenderer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskScheduler = taskScheduler;
+        this.mailRenderExecutor = mailRenderExecutor;
+        this.mailTransportExecutor = mailTransportExecutor;
+        this.outboxProperties = applicationProperties.getMail().getOutbox();
+        this.sentCounter = meterRegistry.counter("myskool.mail.outbox.sent");
+        this.failedCounter = meterRegistry.counter("myskool.mail.outbox.failed");
+        this.deadCounter = meterRegistry.counter("myskool.mail.outbox.dead");
+        this.lagTimer =
+            Timer.builder("myskool.mail.outbox.lag").description("Time between an email being queued and sent").register(meterRegistry);
+        Gauge
+            .builder(
+                "myskool.mail.outbox.messages",
+                mailOutboxMessageRepository,
+                repository -> repository.countByStatus(MailOutboxStatus.PENDING)
+            )
+            .description("Emails waiting in the outbox")
+            .tag("status", "pending")
+            .register(meterRegistry);
+        Gauge
+            .builder(
+                "myskool.mail.outbox.messages",
+                mailOutboxMessageRepository,
+                repository -> repository.countByStatus(MailOutboxStatus.DEAD)
+            )
+            .description("Emails waiting in the outbox")
+            .tag("status", "dead")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPolling() {
+        if (outboxProperties.isPollingEnabled()) {
+            log.debug("Polling the mail outbox every {}", outboxProperties.getPollInterval());
+            taskScheduler.scheduleWithFixedDelay(this::dispatchPending, outboxProperties.getPollInterval());
+        }
+    }
+
+    /**
+     * Claims batches and dispatches them through the render and transport stages, until the outbox has no more due
+     * messages or the render queue is full.
+     */
+    public void dispatchPending() {
+        try {
+            while (mailRenderExecutor.getThreadPoolExecutor().getQueue().remainingCapacity() > 0) {
+                ClaimedBatch batch = claim();
+                if (batch.messages.isEmpty()) {
+                    return;
+                }
+                try {
+                    mailRenderExecutor.execute(() -> handOver(render(batch)));
+                } catch (TaskRejectedException e) {
+                    log.debug("Mail render stage is saturated, releasing {} emails", batch.messages.size());
+                    transactionTemplate.executeWithoutResult(status -> release(batch.messages, batch.leaseEnd));
+                    return;
+                }
+                if (batch.messages.size() < outboxProperties.getBatchSize()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Mail outbox dispatch failed", e);
+        }
+    }
+
+    /**
+     * Claims, sends and acknowledges one batch of due messages on the calling thread.
+     *
+     * @return the number of messages claimed.
+     */
+    public int dispatch() {
+        ClaimedBatch batch = claim();
+        if (!batch.messages.isEmpty()) {
+            transport(render(batch));
+        }
+        return batch.messages.size();
+    }
+
+    private ClaimedBatch claim() {
+        Instant now = Instant.now();
+        // Truncated to be stored as is, as it is compared to the stored date when acknowledging
+        Instant leaseEnd = now.plus(outboxProperties.getLease()).truncatedTo(ChronoUnit.MILLIS);
+        Map<Long, User> users = new HashMap<>();
+        List<MailOutboxMessage> messages = transactionTemplate.execute(status -> claim(now, leaseEnd, users));
+        return new ClaimedBatch(messages != null ? messages : List.of(), leaseEnd, users);
+    }
+
+    /**
+     * Render stage: renders and prepares the messages of a batch.
+     */
+    private PreparedBatch render(ClaimedBatch claimed) {
+        Map<Long, Failure> failures = new HashMap<>();
+        Map<Long, MailTemplateRenderer.RenderedMail> rendered = renderTemplates(claimed.messages, claimed.users, failures);
+        Map<MimeMessage, MailOutboxMessage> prepared = new LinkedHashMap<>();
+        for (MailOutboxMessage message : claimed.messages) {
+            if (failures.containsKey(message.getId())) {
+                continue;
+            }
+            try {
+                prepared.put(prepare(message, rendered.get(message.getId())), message);
+            } catch (MessagingException | RuntimeException e) {
+                log.warn("Email {} could not be prepared", message.getId(), e);
+                failures.put(message.getId(), new Failure(e, true));
+            }
+        }
+        return new PreparedBatch(claimed.messages, claimed.leaseEnd, prepared, failures);
+    }
+
+    /**
+     * Hands a prepared batch over to the transport stage, waiting while its queue is full.
+     */
+    private void handOver(PreparedBatch batch) {
+        try {
+            mailTransportExecutor.execute(() -> transport(batch));
+        } catch (TaskRejectedException e) {
+            log.warn("Mail transport stage is saturated, releasing {} emails", batch.messages.size());
+            transactionTemplate.executeWithoutResult(status -> release(batch.messages, batch.leaseEnd));
+        }
+    }
+
+    /**
+     * Transport stage: sends a prepared batch and acknowledges its messages.
+     */
+    private void transport(PreparedBatch batch) {
+        send(batch.prepared, batch.failures);
+        transactionTemplate.executeWithoutResult(status -> acknowledge(batch.messages, batch.leaseEnd, batch.failures));
+    }
+
+    /**
+     * Makes claimed messages due again, ending their lease early.
+     */
+    private void release(List<MailOutboxMessage> batch, Instant leaseEnd) {
+        Instant now = Instant.now();
+        mailOutboxMessageRepository
+            .findAllByIdInAndNextAttemptDate(ids(batch), leaseEnd)
+            .forEach(message -> message.setNextAttemptDate(now));
+    }
+
+    private List<MailOutboxMessage> claim(Instant now, Instant leaseEnd, Map<Long, User> users) {
+        List<MailOutboxMessage> batch = mailOutboxMessageRepository.findByStatusAndNextAttemptDateLessThanEqualOrderByIdAsc(
+            MailOutboxStatus.PENDING,
+            now,
+            PageRequest.of(0, outboxProperties.getBatchSize())
+        );
+        batch.forEach(message -> message.setNextAttemptDate(leaseEnd));
+        Set<Long> userIds = batch.stream().map(MailOutboxMessage::getUserId).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (!userIds.isEmpty()) {
+            userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+        }
+        return batch;
+    }
+
+    /**
+     * Renders the template messages of a batch, one template at a time.
+     */
+    private Map<Long, MailTemplateRenderer.RenderedMail> renderTemplates(
+        List<MailOutboxMessage> batch,
+        Map<Long, User> users,
+        Map<Long, Failure> failures
+    ) {
+        Map<List<String>, List<MailOutboxMessage>> byTemplate = new LinkedHashMap<>();
+        for (MailOutboxMessage message : batch) {
+            if (!message.isTemplate()) {
+                continue;
+            }
+            if (!users.containsKey(message.getUserId())) {
+                Exception e = new IllegalStateException("User " + message.getUserId() + " does not exist anymore");
+                log.warn("Email {} could not be rendered", message.getId(), e);
+                failures.put(message.getId(), new Failure(e, true));
+                continue;
+            }
+            byTemplate.computeIfAbsent(List.of(message.getTemplateName(), message.getTitleKey()), key -> new ArrayList<>()).add(message);
+        }
+        Map<Long, MailTemplateRenderer.RenderedMail> rendered = new HashMap<>();
+        byTemplate.forEach(
+            (template, messages) -> {
+                List<User> recipients = messages.stream().map(message -> users.get(message.getUserId())).collect(Collectors.toList());
+                try {
+                    List<MailTemplateRenderer.RenderedMail> mails = mailTemplateRenderer.render(
+                        recipients,
+                        template.get(0),
+                        template.get(1)
+                    );
+                    for (int i = 0; i < messages.size(); i++) {
+                        rendered.put(messages.get(i).getId(), mails.get(i));
+                    }
+                } catch (RuntimeException batchFailure) {
+                    // Render one by one, so that only the messages that cannot be rendered fail
+                    for (MailOutboxMessage message : messages) {
+                        try {
+                            rendered.put(
+                                message.getId(),
+                                mailTemplateRenderer.render(users.get(message.getUserId()), template.get(0), template.get(1))
+                            );
+                        } catch (RuntimeException e) {
+                            log.warn("Email {} could not be rendered", message.getId(), e);
+                            failures.put(message.getId(), new Failure(e, true));
+                        }
+                    }
+                }
+            }
+        );
+        return rendered;
+    }
+
+    private MimeMessage prepare(MailOutboxMessage message, MailTemplateRenderer.RenderedMail rendered) throws MessagingException {
+        String subject = rendered != null ? rendered.getSubject() : message.getSubject();
+        String content = rendered != null ? rendered.getContent() : message.getContent();
+
+        // Prepare message using a Spring helper
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isMultipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(subject);
+        helper.setText(content, message.isHtml());
+        return mimeMessage;
+    }
+
+    private void send(Map<MimeMessage, MailOutboxMessage> prepared, Map<Long, Failure> failures) {
+        if (prepared.isEmpty()) {
+            return;
+        }
+        try {
+            javaMailSender.send(prepared.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                log.warn("Emails could not be sent", e);
+                prepared.values().forEach(message -> failures.put(message.getId(), new Failure(e, false)));
+            } else {
+                e
+                    .getFailedMessages()
+                    .forEach(
+                        (mimeMessage, cause) -> {
+                            MailOutboxMessage message = prepared.get(mimeMessage);
+                            if (message != null) {
+                                log.warn("Email {} could not be sent to '{}'", message.getId(), message.getRecipient(), cause);
+                                failures.put(message.getId(), new Failure(cause, false));
+                            }
+                        }
+                    );
+            }
+        } catch (MailException e) {
+            log.warn("Emails could not be sent", e);
+            prepared.values().forEach(message -> failures.put(message.getId(), new Failure(e, false)));
+        }
+    }
+
+    private void acknowledge(List<MailOutboxMessage> batch, Instant leaseEnd, Map<Long, Failure> failures) {
+        Instant now = Instant.now();
+        List<MailOutboxMessage> sent = new ArrayList<>();
+        for (MailOutboxMessage message : batch) {
+            if (!failures.containsKey(message.getId())) {
+                lagTimer.record(Duration.between(message.getCreatedDate(), now));
+                sent.add(message);
+            }
+        }
+        if (!sent.isEmpty()) {
+            int deleted = mailOutboxMessageRepository.deleteAllByIdInAndNextAttemptDate(ids(sent), leaseEnd);
+            sentCounter.increment(sent.size());
+            log.debug("Sent {} emails", sent.size());
+            if (deleted < sent.size()) {
+                log.warn("{} emails were sent after their lease expired, and may be sent again", sent.size() - deleted);
+            }
+        }
+        if (failures.isEmpty()) {
+            return;
+        }
+        for (MailOutboxMessage message : mailOutboxMessageRepository.findAllByIdInAndNextAttemptDate(failures.keySet(), leaseEnd)) {
+            Failure failure = failures.get(message.getId());
+            message.setAttempts(message.getAttempts() + 1);
+            message.setLastError(StringUtils.abbreviate(String.valueOf(failure.cause), MAX_ERROR_LENGTH));
+            if (failure.permanent || message.getAttempts() >= outboxProperties.getMaxAttempts()) {
+                log.error("Email {} to '{}' is dead after {} attempts", message.getId(), message.getRecipient(), message.getAttempts());
+                message.setStatus(MailOutboxStatus.DEAD);
+                deadCounter.increment();
+            } else {
+                message.setNextAttemptDate(now.plus(backoff(message.getAttempts())));
+                failedCounter.increment();
+            }
+        }
+    }
+
+    private static List<Long> ids(List<MailOutboxMessage> batch) {
+        return batch.stream().map(MailOutboxMessage::getId).collect(Collectors.toList());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = outboxProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(outboxProperties.getMaxBackoff()) > 0 ? outboxProperties.getMaxBackoff() : backoff;
+    }
+
+    private static final class ClaimedBatch {
+
+        private final List<MailOutboxMessage> messages;
+
+        private final Instant leaseEnd;
+
+        private final Map<Long, User> users;
+
+        private ClaimedBatch(List<MailOutboxMessage> messages, Instant leaseEnd, Map<Long, User> users) {
+            this.messages = messages;
+            this.leaseEnd = leaseEnd;
+            this.users = users;
+        }
+    }
+
+    private static final class PreparedBatch {
+
+        private final List<MailOutboxMessage> messages;
+
+        private final Instant leaseEnd;
+
+        private final Map<MimeMessage, MailOutboxMessage> prepared;
+
+        private final Map<Long, Failure> failures;
+
+        private PreparedBatch(
+            List<MailOutboxMessage> messages,
+            Instant leaseEnd,
+            Map<MimeMessage, MailOutboxMessage> prepared,
+            Map<Long, Failure> failures
+        ) {
+            this.messages = messages;
+            this.leaseEnd = leaseEnd;
+            this.prepared = prepared;
+            this.failures = failures;
+        }
+    }
+
+    private static final class Failure {
+
+        private final Exception cause;
+
+        private final boolean permanent;
+
+        private Failure(Exception cause, boolean permanent) {
+            this.cause = cause;
+            this.permanent = permanent;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.myskool.service;
+
+import io.myskool.domain.User;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service rendering the email templates.
+ * <p>
+ * Parsed templates are kept by Thymeleaf's own template cache, enabled by {@code spring.thymeleaf.cache}. On top of
+ * it, the locales and the subjects of each (title key, locale) pair are cached with the same setting, and batches
+ * of recipients are rendered with one template specification and one context per locale.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final MessageSource messageSource;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final boolean cache;
+
+    private final ConcurrentMap<String, Locale> locales = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, String> subjects = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        JHipsterProperties jHipsterProperties,
+        MessageSource messageSource,
+        SpringTemplateEngine templateEngine,
+        ThymeleafProperties thymeleafProperties
+    ) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.messageSource = messageSource;
+        this.templateEngine = templateEngine;
+        this.cache = thymeleafProperties.isCache();
+    }
+
+    /**
+     * Renders a template for one recipient.
+     *
+     * @param user the recipient.
+     * @param templateName the name of the template.
+     * @param titleKey the message key of the subject.
+     * @return the rendered email.
+     */
+    public RenderedMail render(User user, String templateName, String titleKey) {
+        return render(List.of(user), templateName, titleKey).get(0);
+    }
+
+    /**
+     * Renders a template for many recipients.
+     *
+     * @param users the recipients.
+     * @param templateName the name of the template.
+     * @param titleKey the message key of the subject.
+     * @return the rendered emails, in the order of the recipients.
+     */
+    public List<RenderedMail> render(List<User> users, String templateName, String titleKey) {
+        TemplateSpec templateSpec = new TemplateSpec(templateName, TemplateMode.HTML);
+        Map<Locale, Context> contexts = new HashMap<>();
+        List<RenderedMail> mails = new ArrayList<>(users.size());
+        for (User user : users) {
+            Locale locale = locale(user.getLangKey());
+            Context context = contexts.computeIfAbsent(locale, this::createContext);
+            context.setVariable(USER, user);
+            mails.add(new RenderedMail(subject(titleKey, locale), templateEngine.process(templateSpec, context)));
+        }
+        return mails;
+    }
+
+    private Context createContext(Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return context;
+    }
+
+    private Locale locale(String langKey) {
+        if (!cache) {
+            return Locale.forLanguageTag(langKey);
+        }
+        return locales.computeIfAbsent(langKey, Locale::forLanguageTag);
+    }
+
+    private String subject(String titleKey, Locale locale) {
+        if (!cache) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects.computeIfAbsent(
+            locale.toLanguageTag() + ':' + titleKey,
+            key -> messageSource.getMessage(titleKey, null, locale)
+        );
+    }
+
+    /**
+     * A rendered email.
+     */
+    public static final class RenderedMail {
+
+        private final String subject;
+
+        private final String content;
+
+        public RenderedMail(String subject, String content) {
+            this.subject = subject;
+            this.content = content;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getContent() {
+            return content;
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package io.myskool.service;
 
+import io.myskool.aop.jfr.UserMutation;
+import io.myskool.config.ApplicationProperties;
 import io.myskool.config.Constants;
 import io.myskool.domain.Authority;
 import io.myskool.domain.User;
 import io.myskool.repository.AuthorityRepository;
 import io.myskool.repository.UserRepository;
 import io.myskool.security.AuthoritiesConstants;
-import io.myskool.security.SecurityUtils;
+import io.myskool.security.CurrentUserResolver;
 import io.myskool.service.dto.AdminUserDTO;
 import io.myskool.service.dto.UserDTO;
+import io.myskool.service.dto.UserOperationDTO;
+import io.myskool.service.dto.UserOperationResultDTO;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
@@ -21,7 +27,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -41,18 +51,35 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final MailService mailService;
+
+    private final CurrentUserResolver currentUserResolver;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Batch batchProperties;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        MailService mailService,
+        CurrentUserResolver currentUserResolver,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.mailService = mailService;
+        this.currentUserResolver = currentUserResolver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchProperties = applicationProperties.getBatch();
     }
 
+    @UserMutation
     public Optional<User> activateRegistration(String key) {
         log.debug("Activating user for activation key {}", key);
         return userRepository
@@ -69,6 +96,7 @@ public class UserService {
             );
     }
 
+    @UserMutation
     public Optional<User> completePasswordReset(String newPassword, String key) {
         log.debug("Reset user password for reset key {}", key);
         return userRepository
@@ -85,6 +113,7 @@ public class UserService {
             );
     }
 
+    @UserMutation
     public Optional<User> requestPasswordReset(String mail) {
         return userRepository
             .findOneByEmailIgnoreCase(mail)
@@ -94,32 +123,17 @@ public class UserService {
                     user.setResetKey(RandomUtil.generateResetKey());
                     user.setResetDate(Instant.now());
                     this.clearUserCaches(user);
+                    mailService.sendPasswordResetMail(user);
                     return user;
                 }
             );
     }
 
+    @UserMutation
     public User registerUser(AdminUserDTO userDTO, String password) {
-        userRepository
-            .findOneByLogin(userDTO.getLogin().toLowerCase())
-            .ifPresent(
-                existingUser -> {
-                    boolean removed = removeNonActivatedUser(existingUser);
-                    if (!removed) {
-                        throw new UsernameAlreadyUsedException();
-                    }
-                }
-            );
-        userRepository
-            .findOneByEmailIgnoreCase(userDTO.getEmail())
-            .ifPresent(
-                existingUser -> {
-                    boolean removed = removeNonActivatedUser(existingUser);
-                    if (!removed) {
-                        throw new EmailAlreadyUsedException();
-                    }
-                }
-            );
+        List<UserRepository.UniqueKeys> existingUsers = findUsersByLoginOrEmail(userDTO.getLogin(), userDTO.getEmail());
+        checkLoginAndEmailNotUsed(existingUsers.stream().filter(UserRepository.UniqueKeys::isActivated), userDTO.getLogin());
+        existingUsers.forEach(this::removeNonActivatedUser);
         User newUser = new User();
         String encryptedPassword = passwordEncoder.encode(password);
         newUser.setLogin(userDTO.getLogin().toLowerCase());
@@ -141,21 +155,54 @@ public class UserService {
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
+        mailService.sendActivationEmail(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
 
-    private boolean removeNonActivatedUser(User existingUser) {
-        if (existingUser.isActivated()) {
-            return false;
+    private void removeNonActivatedUser(UserRepository.UniqueKeys existingUser) {
+        userRepository
+            .findById(existingUser.getId())
+            .ifPresent(
+                user -> {
+                    userRepository.delete(user);
+                    userRepository.flush();
+                    this.clearUserCaches(user);
+                }
+            );
+    }
+
+    /**
+     * Find the users using the login or the email with a single query, as only conflicts need their entity.
+     */
+    private List<UserRepository.UniqueKeys> findUsersByLoginOrEmail(String login, String email) {
+        return userRepository.findAllUniqueKeysByLoginOrEmail(login.toLowerCase(), email != null ? email.toLowerCase() : null);
+    }
+
+    private static void checkLoginAndEmailNotUsed(Stream<UserRepository.UniqueKeys> existingUsers, String login) {
+        List<UserRepository.UniqueKeys> conflicts = existingUsers.collect(Collectors.toList());
+        if (conflicts.stream().anyMatch(existingUser -> existingUser.getLogin().equals(login.toLowerCase()))) {
+            throw new UsernameAlreadyUsedException();
+        }
+        if (!conflicts.isEmpty()) {
+            throw new EmailAlreadyUsedException();
         }
-        userRepository.delete(existingUser);
-        userRepository.flush();
-        this.clearUserCaches(existingUser);
-        return true;
     }
 
+    /**
+     * Create a user.
+     * <p>
+     * Its login and email are checked with a single query. A concurrent creation of the same login or email is caught
+     * on commit by the unique constraints, which the {@code ExceptionTranslator} reports as the same errors.
+     *
+     * @param userDTO user to create.
+     * @return created user.
+     * @throws UsernameAlreadyUsedException if the login is already used.
+     * @throws EmailAlreadyUsedException if the email is already used.
+     */
+    @UserMutation
     public User createUser(AdminUserDTO userDTO) {
+        checkLoginAndEmailNotUsed(findUsersByLoginOrEmail(userDTO.getLogin(), userDTO.getEmail()).stream(), userDTO.getLogin());
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
         user.setFirstName(userDTO.getFirstName());
@@ -186,6 +233,7 @@ public class UserService {
         }
         userRepository.save(user);
         this.clearUserCaches(user);
+        mailService.sendCreationEmail(user);
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -195,8 +243,17 @@ public class UserService {
      *
      * @param userDTO user to update.
      * @return updated user.
+     * @throws UsernameAlreadyUsedException if the login is already used by another user.
+     * @throws EmailAlreadyUsedException if the email is already used by another user.
      */
+    @UserMutation
     public Optional<AdminUserDTO> updateUser(AdminUserDTO userDTO) {
+        checkLoginAndEmailNotUsed(
+            findUsersByLoginOrEmail(userDTO.getLogin(), userDTO.getEmail())
+                .stream()
+                .filter(existingUser -> !existingUser.getId().equals(userDTO.getId())),
+            userDTO.getLogin()
+        );
         return Optional
             .of(userRepository.findById(userDTO.getId()))
             .filter(Optional::isPresent)
@@ -230,16 +287,163 @@ public class UserService {
             .map(AdminUserDTO::new);
     }
 
-    public void deleteUser(String login) {
-        userRepository
+    /**
+     * Delete a user.
+     *
+     * @param login login of the user to delete.
+     * @return whether the user existed.
+     */
+    @UserMutation
+    public boolean deleteUser(String login) {
+        return userRepository
             .findOneByLogin(login)
-            .ifPresent(
+            .map(
                 user -> {
                     userRepository.delete(user);
                     this.clearUserCaches(user);
                     log.debug("Deleted User: {}", user);
+                    return user;
+                }
+            )
+            .isPresent();
+    }
+
+    /**
+     * Execute a batch of operations on users, in transactions of {@code application.batch.chunk-size} operations.
+     * <p>
+     * The operations of a chunk are committed together, and the caches of their users are evicted once, after the
+     * commit. An operation failing on a login or an email already used does not affect the others of its chunk. Any
+     * other failure rolls the chunk back, which is then executed again one operation per transaction, to find the
+     * failing one.
+     * <p>
+     * When not continuing on error, the operations after the first failed one are skipped, and the ones before it are
+     * kept.
+     *
+     * @param operations the operations, in their order of execution.
+     * @param continueOnError whether to execute the operations after a failed one.
+     * @return the result of each operation, in the same order.
+     */
+    @UserMutation
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<UserOperationResultDTO> executeBatch(List<UserOperationDTO> operations, boolean continueOnError) {
+        UserOperationResultDTO[] results = new UserOperationResultDTO[operations.size()];
+        int chunkSize = Math.max(1, batchProperties.getChunkSize());
+        boolean proceed = true;
+        for (int start = 0; proceed && start < operations.size(); start += chunkSize) {
+            proceed = executeChunk(operations, start, Math.min(start + chunkSize, operations.size()), continueOnError, results);
+        }
+        for (int index = 0; index < results.length; index++) {
+            if (results[index] == null) {
+                results[index] = result(index, operations.get(index), UserOperationResultDTO.Status.SKIPPED, null);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @return whether to execute the next chunk.
+     */
+    private boolean executeChunk(
+        List<UserOperationDTO> operations,
+        int start,
+        int end,
+        boolean continueOnError,
+        UserOperationResultDTO[] results
+    ) {
+        try {
+            return inChunkTransaction(
+                () -> {
+                    for (int index = start; index < end; index++) {
+                        results[index] = execute(index, operations.get(index));
+                        if (!continueOnError && results[index].getStatus() == UserOperationResultDTO.Status.FAILED) {
+                            return false;
+                        }
+                    }
+                    return true;
                 }
             );
+        } catch (RuntimeException e) {
+            log.debug("Rolled back the batch operations {} to {}, executing them one by one", start, end - 1, e);
+            // The results of the rolled back operations no longer hold, the ones not executed again are skipped
+            Arrays.fill(results, start, end, null);
+        }
+        for (int index = start; index < end; index++) {
+            int current = index;
+            try {
+                results[index] = inChunkTransaction(() -> execute(current, operations.get(current)));
+            } catch (RuntimeException e) {
+                log.warn("Batch operation {} failed: {}", operations.get(index), e.toString());
+                results[index] = result(index, operations.get(index), UserOperationResultDTO.Status.FAILED, "Unexpected error");
+            }
+            if (!continueOnError && results[index].getStatus() == UserOperationResultDTO.Status.FAILED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Execute an operation in the current transaction, through the methods of this service but not its proxy, so that
+     * the business errors do not mark the transaction for rollback.
+     */
+    private UserOperationResultDTO execute(int index, UserOperationDTO operation) {
+        try {
+            switch (operation.getType()) {
+                case CREATE:
+                    createUser(operation.getUser());
+                    return result(index, operation, UserOperationResultDTO.Status.CREATED, null);
+                case UPDATE:
+                    return result(
+                        index,
+                        operation,
+                        updateUser(operation.getUser()).isPresent()
+                            ? UserOperationResultDTO.Status.UPDATED
+                            : UserOperationResultDTO.Status.NOT_FOUND,
+                        null
+                    );
+                default:
+                    return result(
+                        index,
+                        operation,
+                        deleteUser(operation.getLogin()) ? UserOperationResultDTO.Status.DELETED : UserOperationResultDTO.Status.NOT_FOUND,
+                        null
+                    );
+            }
+        } catch (UsernameAlreadyUsedException | EmailAlreadyUsedException e) {
+            return result(index, operation, UserOperationResultDTO.Status.FAILED, e.getMessage());
+        }
+    }
+
+    private static UserOperationResultDTO result(
+        int index,
+        UserOperationDTO operation,
+        UserOperationResultDTO.Status status,
+        String error
+    ) {
+        String login = operation.getUser() != null ? operation.getUser().getLogin() : operation.getLogin();
+        return new UserOperationResultDTO(index, login != null ? login.toLowerCase() : null, status, error);
+    }
+
+    /**
+     * Run the work in a new transaction, deferring the cache evictions of its users to its completion.
+     */
+    private <T> T inChunkTransaction(Supplier<T> work) {
+        DeferredCacheEvictions evictions = new DeferredCacheEvictions();
+        try {
+            return transactionTemplate.execute(
+                status -> {
+                    TransactionSynchronizationManager.bindResource(DeferredCacheEvictions.class, evictions);
+                    try {
+                        return work.get();
+                    } finally {
+                        TransactionSynchronizationManager.unbindResource(DeferredCacheEvictions.class);
+                    }
+                }
+            );
+        } finally {
+            evictions.logins.forEach(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE))::evict);
+            evictions.emails.forEach(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE))::evict);
+        }
     }
 
     /**
@@ -250,31 +454,40 @@ public class UserService {
      * @param email     email id of user.
      * @param langKey   language key.
      * @param imageUrl  image URL of user.
+     * @return the updated user, or empty if the current user could not be found.
+     * @throws EmailAlreadyUsedException if the email is already used by another user.
      */
-    public void updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
-        SecurityUtils
-            .getCurrentUserLogin()
-            .flatMap(userRepository::findOneByLogin)
-            .ifPresent(
-                user -> {
-                    user.setFirstName(firstName);
-                    user.setLastName(lastName);
-                    if (email != null) {
-                        user.setEmail(email.toLowerCase());
+    @UserMutation("updateCurrentUser")
+    public Optional<User> updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
+        Optional<User> currentUser = currentUserResolver.getCurrentUserForUpdate();
+        currentUser.ifPresent(
+            user -> {
+                // The email of the user is unique, so it can only be used by another user if it changes
+                if (email != null && !email.equalsIgnoreCase(user.getEmail())) {
+                    Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(email);
+                    if (existingUser.isPresent() && !existingUser.get().getLogin().equalsIgnoreCase(user.getLogin())) {
+                        throw new EmailAlreadyUsedException();
                     }
-                    user.setLangKey(langKey);
-                    user.setImageUrl(imageUrl);
-                    this.clearUserCaches(user);
-                    log.debug("Changed Information for User: {}", user);
                 }
-            );
+                user.setFirstName(firstName);
+                user.setLastName(lastName);
+                if (email != null) {
+                    user.setEmail(email.toLowerCase());
+                }
+                user.setLangKey(langKey);
+                user.setImageUrl(imageUrl);
+                this.clearUserCaches(user);
+                log.debug("Changed Information for User: {}", user);
+            }
+        );
+        return currentUser;
     }
 
     @Transactional
+    @UserMutation
     public void changePassword(String currentClearTextPassword, String newPassword) {
-        SecurityUtils
-            .getCurrentUserLogin()
-            .flatMap(userRepository::findOneByLogin)
+        currentUserResolver
+            .getCurrentUserForUpdate()
             .ifPresent(
                 user -> {
                     String currentEncryptedPassword = user.getPassword();
@@ -294,19 +507,32 @@ public class UserService {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
     }
 
+    /**
+     * Get a page of users, reading only the given fields.
+     *
+     * @param pageable the pagination information.
+     * @param fields the fields to read, from {@link UserRepository#FIELDS}.
+     * @return the page of users, each one mapping the names of the given fields to their values.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllManagedUsers(Pageable pageable, Set<String> fields) {
+        return userRepository.findAllFields(fields, pageable);
+    }
+
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
     }
 
-    @Transactional(readOnly = true)
+    // The cached user lookups are not read-only, so that they are read from the primary and cached
+    @Transactional
     public Optional<User> getUserWithAuthoritiesByLogin(String login) {
         return userRepository.findOneWithAuthoritiesByLogin(login);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return currentUserResolver.getCurrentUser();
     }
 
     /**
@@ -337,9 +563,29 @@ public class UserService {
     }
 
     private void clearUserCaches(User user) {
+        DeferredCacheEvictions evictions = (DeferredCacheEvictions) TransactionSynchronizationManager.getResource(
+            DeferredCacheEvictions.class
+        );
+        if (evictions != null) {
+            evictions.logins.add(user.getLogin());
+            if (user.getEmail() != null) {
+                evictions.emails.add(user.getEmail());
+            }
+            return;
+        }
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
     }
+
+    /**
+     * The cache keys of the users changed by a batch chunk, evicted once it is completed.
+     */
+    private static final class DeferredCacheEvictions {
+
+        private final Set<String> logins = new HashSet<>();
+
+        private final Set<String> emails = new HashSet<>();
+    }
 }
@@ -1,6 +1,8 @@
 package io.myskool.service;
 
-public class UsernameAlreadyUsedException extends RuntimeException {
+import io.myskool.config.errors.BusinessException;
+
+public class UsernameAlreadyUsedException extends BusinessException {
 
     private static final long serialVersionUID = 1L;
 
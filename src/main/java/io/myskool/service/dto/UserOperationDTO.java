@@ -0,0 +1,72 @@
+package io.myskool.service.dto;
+
+import io.myskool.config.Constants;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+/**
+ * A DTO representing an operation on a user, in a batch of operations.
+ */
+public class UserOperationDTO {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE,
+    }
+
+    @NotNull
+    private Type type;
+
+    /**
+     * The user to create or to update.
+     */
+    @Valid
+    private AdminUserDTO user;
+
+    /**
+     * The login of the user to delete.
+     */
+    @Pattern(regexp = Constants.LOGIN_REGEX)
+    private String login;
+
+    public UserOperationDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public UserOperationDTO(Type type, AdminUserDTO user, String login) {
+        this.type = type;
+        this.user = user;
+        this.login = login;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public AdminUserDTO getUser() {
+        return user;
+    }
+
+    public void setUser(AdminUserDTO user) {
+        this.user = user;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    @Override
+    public String toString() {
+        return "UserOperationDTO{" + "type=" + type + ", user=" + user + ", login='" + login + '\'' + '}';
+    }
+}
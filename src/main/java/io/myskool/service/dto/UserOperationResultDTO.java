@@ -0,0 +1,88 @@
+package io.myskool.service.dto;
+
+/**
+ * A DTO representing the result of an operation on a user, in a batch of operations.
+ */
+public class UserOperationResultDTO {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        FAILED,
+        /**
+         * Not executed, as a previous operation of a fail-fast batch failed.
+         */
+        SKIPPED,
+    }
+
+    private int index;
+
+    private String login;
+
+    private Status status;
+
+    private String error;
+
+    public UserOperationResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public UserOperationResultDTO(int index, String login, Status status, String error) {
+        this.index = index;
+        this.login = login;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "UserOperationResultDTO{" +
+            "index=" +
+            index +
+            ", login='" +
+            login +
+            '\'' +
+            ", status=" +
+            status +
+            ", error='" +
+            error +
+            '\'' +
+            '}'
+        );
+    }
+}
@@ -0,0 +1,125 @@
+package io.myskool.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter isolating groups of requests from each other: each group has a fixed number of permits, so that it never
+ * holds more than that many worker threads, and the requests above it are rejected with a
+ * {@code 503 (Service Unavailable)}, optionally after waiting for a permit.
+ * <p>
+ * The name of the group of a request is kept in the {@link #GROUP_ATTRIBUTE} request attribute, for the
+ * {@code BulkheadRoutingDataSource} to give a group its own connection pool. The rejected requests are marked with
+ * the {@link #REJECTED_ATTRIBUTE} request attribute, for the {@link ConcurrencyLimitFilter} not to take their latency
+ * as a sample. The permits available and the rejected requests of each group are published as meters.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    public static final String DEFAULT_GROUP = "default";
+
+    public static final String GROUP_ATTRIBUTE = BulkheadFilter.class.getName() + ".group";
+
+    public static final String REJECTED_ATTRIBUTE = BulkheadFilter.class.getName() + ".rejected";
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Logger log = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final RouteGroups<Bulkhead> bulkheads;
+
+    public BulkheadFilter(MeterRegistry meterRegistry, int defaultMaxConcurrent, Duration defaultMaxWait) {
+        this.meterRegistry = meterRegistry;
+        this.bulkheads = new RouteGroups<>(new Bulkhead(DEFAULT_GROUP, defaultMaxConcurrent, defaultMaxWait));
+    }
+
+    /**
+     * Add a group of paths with its own bulkhead, the groups being matched in the order they are added.
+     *
+     * @param name the name of the group, tagging its meters.
+     * @param patterns the Ant patterns of the paths of the group, as in the {@code SecurityConfiguration}.
+     * @param maxConcurrent the maximum number of concurrent requests of the group.
+     * @param maxWait the maximum time a request waits for a permit before being rejected.
+     * @return this filter.
+     */
+    public BulkheadFilter addGroup(String name, List<String> patterns, int maxConcurrent, Duration maxWait) {
+        bulkheads.add(patterns, new Bulkhead(name, maxConcurrent, maxWait));
+        return this;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Bulkhead bulkhead = bulkheads.find(request);
+        if (!bulkhead.tryAcquire()) {
+            bulkhead.rejected.increment();
+            request.setAttribute(REJECTED_ATTRIBUTE, Boolean.TRUE);
+            log.debug("Rejecting {} {}, the {} bulkhead is full", request.getMethod(), request.getRequestURI(), bulkhead.name);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        request.setAttribute(GROUP_ATTRIBUTE, bulkhead.name);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.permits.release();
+        }
+    }
+
+    private final class Bulkhead {
+
+        private final String name;
+
+        private final Semaphore permits;
+
+        private final long maxWaitNanos;
+
+        private final Counter rejected;
+
+        private Bulkhead(String name, int maxConcurrent, Duration maxWait) {
+            this.name = name;
+            this.permits = new Semaphore(maxConcurrent);
+            this.maxWaitNanos = maxWait.toNanos();
+            Gauge
+                .builder("myskool.http.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Permits available to concurrent HTTP requests")
+                .tag("group", name)
+                .register(meterRegistry);
+            this.rejected =
+                Counter
+                    .builder("myskool.http.bulkhead.rejected")
+                    .description("HTTP requests rejected with a 503, their bulkhead being full")
+                    .tag("group", name)
+                    .register(meterRegistry);
+        }
+
+        private boolean tryAcquire() {
+            if (maxWaitNanos <= 0) {
+                return permits.tryAcquire();
+            }
+            try {
+                return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
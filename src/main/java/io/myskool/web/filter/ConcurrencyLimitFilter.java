@@ -0,0 +1,115 @@
+package io.myskool.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter shedding the requests above a {@link GradientConcurrencyLimit}, with a {@code 503 (Service Unavailable)},
+ * before they hold a worker thread and a database connection.
+ * <p>
+ * Each group of paths has its own limit, so that slow administration requests or password hashing do not shed the
+ * other requests. The requests of no group share the default limit. The requests rejected by the
+ * {@link BulkheadFilter} are not taken as samples, their latency not reflecting the load. The limit, the requests in
+ * flight and the shed requests of each group are published as meters.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final String DEFAULT_GROUP = "default";
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final RouteGroups<Group> groups;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry, GradientConcurrencyLimit defaultLimit) {
+        this.meterRegistry = meterRegistry;
+        this.groups = new RouteGroups<>(new Group(DEFAULT_GROUP, defaultLimit));
+    }
+
+    /**
+     * Add a group of paths with its own limit, the groups being matched in the order they are added.
+     *
+     * @param name the name of the group, tagging its meters.
+     * @param patterns the Ant patterns of the paths of the group, as in the {@code SecurityConfiguration}.
+     * @param limit the limit of the group.
+     * @return this filter.
+     */
+    public ConcurrencyLimitFilter addGroup(String name, List<String> patterns, GradientConcurrencyLimit limit) {
+        groups.add(patterns, new Group(name, limit));
+        return this;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Group group = groups.find(request);
+        if (!group.limit.tryAcquire()) {
+            group.dropped.increment();
+            log.debug(
+                "Shedding {} {}, {} requests in flight at the limit of the {} group",
+                request.getMethod(),
+                request.getRequestURI(),
+                group.limit.getInFlight(),
+                group.name
+            );
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(BulkheadFilter.REJECTED_ATTRIBUTE) != null) {
+                group.limit.releaseWithoutSample();
+            } else {
+                group.limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final class Group {
+
+        private final String name;
+
+        private final GradientConcurrencyLimit limit;
+
+        private final Counter dropped;
+
+        private Group(String name, GradientConcurrencyLimit limit) {
+            this.name = name;
+            this.limit = limit;
+            Gauge
+                .builder("myskool.http.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .description("Limit of concurrent HTTP requests")
+                .tag("group", name)
+                .register(meterRegistry);
+            Gauge
+                .builder("myskool.http.concurrency.in.flight", limit, GradientConcurrencyLimit::getInFlight)
+                .description("HTTP requests in flight")
+                .tag("group", name)
+                .register(meterRegistry);
+            this.dropped =
+                Counter
+                    .builder("myskool.http.concurrency.dropped")
+                    .description("HTTP requests shed with a 503, above the concurrency limit")
+                    .tag("group", name)
+                    .register(meterRegistry);
+        }
+    }
+}
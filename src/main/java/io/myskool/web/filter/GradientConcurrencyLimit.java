@@ -0,0 +1,115 @@
+package io.myskool.web.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limit of concurrent requests adapting to their latency, with the gradient algorithm of Netflix's concurrency-limits.
+ * <p>
+ * The latency of each request is compared to a long term average: while it stays within the tolerance the limit grows
+ * by about its square root, and as it rises above the average, when the requests queue for the database or the
+ * workers, the limit shrinks proportionally. The changes are smoothed, and bounded by a minimum and a maximum.
+ * <p>
+ * The limit only grows while at least half of it is in use, so that it does not drift up while idle.
+ */
+public class GradientConcurrencyLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double rttTolerance;
+
+    private final int longWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private double longRtt;
+
+    private int samples;
+
+    /**
+     * @param initialLimit the limit until the first latencies are measured.
+     * @param minLimit the minimum limit.
+     * @param maxLimit the maximum limit.
+     * @param smoothing the weight, between 0 and 1, of each new estimate of the limit.
+     * @param rttTolerance the ratio of the latency to its long term average below which the limit grows.
+     * @param longWindow the number of requests over which the long term average latency is computed.
+     */
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double rttTolerance, int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longWindow = longWindow;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Start a request, unless the limit is reached.
+     *
+     * @return whether the request can proceed, in which case {@link #release(long)} or {@link #releaseWithoutSample()}
+     * must be called once it is done.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * End a request, updating the limit with its latency.
+     *
+     * @param rttNanos the latency of the request.
+     */
+    public void release(long rttNanos) {
+        int concurrency = inFlight.getAndDecrement();
+        update(Math.max(1, rttNanos), concurrency);
+    }
+
+    /**
+     * End a request without updating the limit, its latency not reflecting the load, such as a request rejected by a
+     * bulkhead.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long rtt, int concurrency) {
+        // Plain average over the first requests, then exponential
+        samples = Math.min(samples + 1, longWindow);
+        longRtt += (rtt - longRtt) / samples;
+        // Recover faster once a sustained slowdown is over, the average still being far above the latency
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (concurrency < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
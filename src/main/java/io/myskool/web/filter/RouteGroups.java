@@ -0,0 +1,43 @@
+package io.myskool.web.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Groups of requests, matched by Ant patterns with the same {@link AntPathRequestMatcher} as the
+ * {@code antMatchers} of the {@code SecurityConfiguration}, in the order they are added.
+ */
+final class RouteGroups<T> {
+
+    private final List<RequestMatcher> matchers = new ArrayList<>();
+
+    private final List<T> groups = new ArrayList<>();
+
+    private final T defaultGroup;
+
+    RouteGroups(T defaultGroup) {
+        this.defaultGroup = defaultGroup;
+    }
+
+    void add(List<String> patterns, T group) {
+        List<RequestMatcher> patternMatchers = new ArrayList<>();
+        patterns.forEach(pattern -> patternMatchers.add(new AntPathRequestMatcher(pattern)));
+        if (!patternMatchers.isEmpty()) {
+            matchers.add(new OrRequestMatcher(patternMatchers));
+            groups.add(group);
+        }
+    }
+
+    T find(HttpServletRequest request) {
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).matches(request)) {
+                return groups.get(i);
+            }
+        }
+        return defaultGroup;
+    }
+}
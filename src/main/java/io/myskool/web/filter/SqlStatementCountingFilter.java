@@ -0,0 +1,97 @@
+package io.myskool.web.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.myskool.config.sql.SqlStatementCounter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Filter counting the SQL statements executed, and the time spent executing them, for each HTTP request.
+ * <p>
+ * Counts are recorded as distributions tagged by endpoint, and a warning is logged when a request executes more
+ * statements than the configured threshold, which usually points at an N+1 select. Optionally, the counts are also
+ * sent back to the client in the {@link #STATEMENT_COUNT_HEADER} and {@link #STATEMENT_TIME_HEADER} headers, which
+ * requires buffering the response body and is only meant for development.
+ */
+public class SqlStatementCountingFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-Sql-Statement-Count";
+
+    public static final String STATEMENT_TIME_HEADER = "X-Sql-Statement-Time";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatementCountingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean responseHeader;
+
+    private final int warnThreshold;
+
+    public SqlStatementCountingFilter(MeterRegistry meterRegistry, boolean responseHeader, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.responseHeader = responseHeader;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        ContentCachingResponseWrapper bufferedResponse = responseHeader ? new ContentCachingResponseWrapper(response) : null;
+        SqlStatementCounter.Counts counts = SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, bufferedResponse != null ? bufferedResponse : response);
+        } finally {
+            SqlStatementCounter.stop(counts);
+            record(request, counts);
+            if (bufferedResponse != null) {
+                bufferedResponse.setHeader(STATEMENT_COUNT_HEADER, String.valueOf(counts.getStatements()));
+                bufferedResponse.setHeader(STATEMENT_TIME_HEADER, TimeUnit.NANOSECONDS.toMillis(counts.getElapsedNanos()) + "ms");
+                bufferedResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Counts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        String method = request.getMethod();
+        DistributionSummary
+            .builder("myskool.http.sql.statements")
+            .description("SQL statements executed per HTTP request")
+            .baseUnit("statements")
+            .tag("method", method)
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(counts.getStatements());
+        Timer
+            .builder("myskool.http.sql.time")
+            .description("Time spent executing SQL statements per HTTP request")
+            .tag("method", method)
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(counts.getElapsedNanos(), TimeUnit.NANOSECONDS);
+        if (counts.getStatements() > warnThreshold) {
+            log.warn(
+                "{} {} executed {} SQL statements in {}ms, above the threshold of {}: check for N+1 selects",
+                method,
+                uri,
+                counts.getStatements(),
+                TimeUnit.NANOSECONDS.toMillis(counts.getElapsedNanos()),
+                warnThreshold
+            );
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Servlet filters.
+ */
+package io.myskool.web.filter;
@@ -4,12 +4,12 @@ import io.myskool.config.Constants;
 import io.myskool.domain.User;
 import io.myskool.repository.UserRepository;
 import io.myskool.security.AuthoritiesConstants;
-import io.myskool.service.MailService;
 import io.myskool.service.UserService;
 import io.myskool.service.dto.AdminUserDTO;
+import io.myskool.service.dto.UserOperationDTO;
+import io.myskool.service.dto.UserOperationResultDTO;
 import io.myskool.web.rest.errors.BadRequestAlertException;
-import io.myskool.web.rest.errors.EmailAlreadyUsedException;
-import io.myskool.web.rest.errors.LoginAlreadyUsedException;
+import io.myskool.web.rest.vm.UserBatchVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -64,6 +64,8 @@ public class UserResource {
         Arrays.asList("id", "login", "firstName", "lastName", "email", "activated", "langKey")
     );
 
+    private static final Set<String> ALLOWED_FIELDS = UserRepository.FIELDS;
+
     private final Logger log = LoggerFactory.getLogger(UserResource.class);
 
     @Value("${jhipster.clientApp.name}")
@@ -71,14 +73,8 @@ public class UserResource {
 
     private final UserService userService;
 
-    private final UserRepository userRepository;
-
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService) {
         this.userService = userService;
-        this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -91,7 +87,9 @@ public class UserResource {
      * @param userDTO the user to create.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new user, or with status {@code 400 (Bad Request)} if the login or email is already in use.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
-     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the login or email is already in use.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the user already has an ID.
+     * @throws io.myskool.service.UsernameAlreadyUsedException {@code 400 (Bad Request)} if the login is already in use.
+     * @throws io.myskool.service.EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already in use.
      */
     @PostMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
@@ -100,14 +98,9 @@ public class UserResource {
 
         if (userDTO.getId() != null) {
             throw new BadRequestAlertException("A new user cannot already have an ID", "userManagement", "idexists");
-            // Lowercase the user login before comparing with database
-        } else if (userRepository.findOneByLogin(userDTO.getLogin().toLowerCase()).isPresent()) {
-            throw new LoginAlreadyUsedException();
-        } else if (userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()).isPresent()) {
-            throw new EmailAlreadyUsedException();
         } else {
+            // The service checks the login and the email, and throws if they are already used
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity
                 .created(new URI("/api/admin/users/" + newUser.getLogin()))
                 .headers(
@@ -122,21 +115,13 @@ public class UserResource {
      *
      * @param userDTO the user to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated user.
-     * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already in use.
-     * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if the login is already in use.
+     * @throws io.myskool.service.EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already in use.
+     * @throws io.myskool.service.UsernameAlreadyUsedException {@code 400 (Bad Request)} if the login is already in use.
      */
     @PutMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
     public ResponseEntity<AdminUserDTO> updateUser(@Valid @RequestBody AdminUserDTO userDTO) {
         log.debug("REST request to update User : {}", userDTO);
-        Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
-        if (existingUser.isPresent() && (!existingUser.get().getId().equals(userDTO.getId()))) {
-            throw new EmailAlreadyUsedException();
-        }
-        existingUser = userRepository.findOneByLogin(userDTO.getLogin().toLowerCase());
-        if (existingUser.isPresent() && (!existingUser.get().getId().equals(userDTO.getId()))) {
-            throw new LoginAlreadyUsedException();
-        }
         Optional<AdminUserDTO> updatedUser = userService.updateUser(userDTO);
 
         return ResponseUtil.wrapOrNotFound(
@@ -164,6 +149,29 @@ public class UserResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /admin/users?fields=} : get all users with only the given details - calling this are only allowed for the administrators.
+     * <p>
+     * Only the columns of the given fields are selected, and only these fields are serialized.
+     *
+     * @param pageable the pagination information.
+     * @param fields the comma separated names of the {@link AdminUserDTO} properties to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users, or with status {@code 400 (Bad Request)} if a field is not allowed.
+     */
+    @GetMapping(path = "/users", params = "fields")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<Map<String, Object>>> getAllUsers(Pageable pageable, @RequestParam List<String> fields) {
+        log.debug("REST request to get the fields {} of all User for an admin", fields);
+        Set<String> selectedFields = new LinkedHashSet<>(fields);
+        if (!onlyContainsAllowedProperties(pageable) || selectedFields.isEmpty() || !ALLOWED_FIELDS.containsAll(selectedFields)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final Page<Map<String, Object>> page = userService.getAllManagedUsers(pageable, selectedFields);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
@@ -197,4 +205,35 @@ public class UserResource {
             .headers(HeaderUtil.createAlert(applicationName, "A user is deleted with identifier " + login, login))
             .build();
     }
+
+    /**
+     * {@code POST /admin/batch} : execute a batch of operations on users.
+     * <p>
+     * The operations are executed in order, in transactions of several operations.
+     *
+     * @param batchVM the operations, and whether to execute the operations after a failed one.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each operation, or with status {@code 400 (Bad Request)} if an operation is incomplete.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<UserOperationResultDTO>> executeBatch(@Valid @RequestBody UserBatchVM batchVM) {
+        log.debug("REST request to execute a batch of {} User operations", batchVM.getOperations().size());
+        if (!batchVM.getOperations().stream().allMatch(UserResource::isComplete)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.executeBatch(batchVM.getOperations(), batchVM.isContinueOnError()));
+    }
+
+    private static boolean isComplete(UserOperationDTO operation) {
+        switch (operation.getType()) {
+            case CREATE:
+                return operation.getUser() != null && operation.getUser().getId() == null;
+            case UPDATE:
+                return (
+                    operation.getUser() != null && operation.getUser().getId() != null && operation.getUser().getAuthorities() != null
+                );
+            default:
+                return operation.getLogin() != null;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package io.myskool.web.rest.errors;
 
+import io.myskool.config.errors.BusinessExceptions;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
@@ -32,6 +33,11 @@ public class BadRequestAlertException extends AbstractThrowableProblem {
         return errorKey;
     }
 
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return BusinessExceptions.fillInStackTrace(this, super::fillInStackTrace);
+    }
+
     private static Map<String, Object> getAlertParameters(String entityName, String errorKey) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("message", "error." + errorKey);
@@ -1,19 +1,26 @@
 package io.myskool.web.rest.errors;
 
+import io.myskool.repository.UserRepository;
 import java.net.URI;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -26,6 +33,7 @@ import org.zalando.problem.Problem;
 import org.zalando.problem.ProblemBuilder;
 import org.zalando.problem.Status;
 import org.zalando.problem.StatusType;
+import org.zalando.problem.ThrowableProblem;
 import org.zalando.problem.spring.web.advice.ProblemHandling;
 import org.zalando.problem.spring.web.advice.security.SecurityAdviceTrait;
 import org.zalando.problem.violations.ConstraintViolationProblem;
@@ -44,13 +52,36 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
     private static final String PATH_KEY = "path";
     private static final String VIOLATIONS_KEY = "violations";
 
-    @Value("${jhipster.clientApp.name}")
-    private String applicationName;
+    private static final Problem CONCURRENCY_FAILURE_PROBLEM = Problem
+        .builder()
+        .withStatus(Status.CONFLICT)
+        .with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE)
+        .build();
 
-    private final Environment env;
+    private final String applicationName;
 
-    public ExceptionTranslator(Environment env) {
-        this.env = env;
+    private final boolean production;
+
+    // The responses of the expected business failures never change, so they are built once
+    private final ProblemTemplate loginAlreadyUsed;
+
+    private final ProblemTemplate emailAlreadyUsed;
+
+    private final ProblemTemplate invalidPassword;
+
+    public ExceptionTranslator(Environment env, @Value("${jhipster.clientApp.name}") String applicationName) {
+        this.applicationName = applicationName;
+        this.production = Arrays.asList(env.getActiveProfiles()).contains(JHipsterConstants.SPRING_PROFILE_PRODUCTION);
+        this.loginAlreadyUsed = alertTemplate(new LoginAlreadyUsedException());
+        this.emailAlreadyUsed = alertTemplate(new EmailAlreadyUsedException());
+        this.invalidPassword = new ProblemTemplate(new InvalidPasswordException(), new HttpHeaders());
+    }
+
+    private ProblemTemplate alertTemplate(BadRequestAlertException problem) {
+        return new ProblemTemplate(
+            problem,
+            HeaderUtil.createFailureAlert(applicationName, false, problem.getEntityName(), problem.getErrorKey(), problem.getMessage())
+        );
     }
 
     /**
@@ -66,14 +97,12 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
             return entity;
         }
 
-        HttpServletRequest nativeRequest = request.getNativeRequest(HttpServletRequest.class);
-        String requestUri = nativeRequest != null ? nativeRequest.getRequestURI() : StringUtils.EMPTY;
         ProblemBuilder builder = Problem
             .builder()
             .withType(Problem.DEFAULT_TYPE.equals(problem.getType()) ? ErrorConstants.DEFAULT_TYPE : problem.getType())
             .withStatus(problem.getStatus())
             .withTitle(problem.getTitle())
-            .with(PATH_KEY, requestUri);
+            .with(PATH_KEY, requestUri(request));
 
         if (problem instanceof ConstraintViolationProblem) {
             builder
@@ -81,14 +110,24 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
                 .with(MESSAGE_KEY, ErrorConstants.ERR_VALIDATION);
         } else {
             builder.withCause(((DefaultProblem) problem).getCause()).withDetail(problem.getDetail()).withInstance(problem.getInstance());
-            problem.getParameters().forEach(builder::with);
-            if (!problem.getParameters().containsKey(MESSAGE_KEY) && problem.getStatus() != null) {
-                builder.with(MESSAGE_KEY, "error.http." + problem.getStatus().getStatusCode());
-            }
+            withParameters(builder, problem);
         }
         return new ResponseEntity<>(builder.build(), entity.getHeaders(), entity.getStatusCode());
     }
 
+    private static String requestUri(NativeWebRequest request) {
+        HttpServletRequest nativeRequest = request.getNativeRequest(HttpServletRequest.class);
+        return nativeRequest != null ? nativeRequest.getRequestURI() : StringUtils.EMPTY;
+    }
+
+    private static ProblemBuilder withParameters(ProblemBuilder builder, Problem problem) {
+        problem.getParameters().forEach(builder::with);
+        if (!problem.getParameters().containsKey(MESSAGE_KEY) && problem.getStatus() != null) {
+            builder.with(MESSAGE_KEY, "error.http." + problem.getStatus().getStatusCode());
+        }
+        return builder;
+    }
+
     @Override
     public ResponseEntity<Problem> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, @Nonnull NativeWebRequest request) {
         BindingResult result = ex.getBindingResult();
@@ -121,12 +160,7 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         io.myskool.service.EmailAlreadyUsedException ex,
         NativeWebRequest request
     ) {
-        EmailAlreadyUsedException problem = new EmailAlreadyUsedException();
-        return create(
-            problem,
-            request,
-            HeaderUtil.createFailureAlert(applicationName, false, problem.getEntityName(), problem.getErrorKey(), problem.getMessage())
-        );
+        return emailAlreadyUsed.create(this, ex, request);
     }
 
     @ExceptionHandler
@@ -134,12 +168,30 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         io.myskool.service.UsernameAlreadyUsedException ex,
         NativeWebRequest request
     ) {
-        LoginAlreadyUsedException problem = new LoginAlreadyUsedException();
-        return create(
-            problem,
-            request,
-            HeaderUtil.createFailureAlert(applicationName, false, problem.getEntityName(), problem.getErrorKey(), problem.getMessage())
+        return loginAlreadyUsed.create(this, ex, request);
+    }
+
+    /**
+     * Reports the violations of the unique constraints of the users, raised when a login or an email is used
+     * concurrently, as the errors of the checks done before.
+     */
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleDataIntegrityViolation(DataIntegrityViolationException ex, NativeWebRequest request) {
+        String violation = StringUtils.lowerCase(
+            StringUtils.defaultIfEmpty(
+                ex.getCause() instanceof ConstraintViolationException
+                    ? ((ConstraintViolationException) ex.getCause()).getConstraintName()
+                    : null,
+                ex.getMostSpecificCause().getMessage()
+            )
         );
+        if (StringUtils.contains(violation, UserRepository.LOGIN_UNIQUE_CONSTRAINT)) {
+            return handleUsernameAlreadyUsedException(new io.myskool.service.UsernameAlreadyUsedException(), request);
+        }
+        if (StringUtils.contains(violation, UserRepository.EMAIL_UNIQUE_CONSTRAINT)) {
+            return handleEmailAlreadyUsedException(new io.myskool.service.EmailAlreadyUsedException(), request);
+        }
+        return create(ex, request);
     }
 
     @ExceptionHandler
@@ -147,7 +199,7 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         io.myskool.service.InvalidPasswordException ex,
         NativeWebRequest request
     ) {
-        return create(new InvalidPasswordException(), request);
+        return invalidPassword.create(this, ex, request);
     }
 
     @ExceptionHandler
@@ -161,15 +213,12 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
 
     @ExceptionHandler
     public ResponseEntity<Problem> handleConcurrencyFailure(ConcurrencyFailureException ex, NativeWebRequest request) {
-        Problem problem = Problem.builder().withStatus(Status.CONFLICT).with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE).build();
-        return create(ex, problem, request);
+        return create(ex, CONCURRENCY_FAILURE_PROBLEM, request);
     }
 
     @Override
     public ProblemBuilder prepare(final Throwable throwable, final StatusType status, final URI type) {
-        Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
-
-        if (activeProfiles.contains(JHipsterConstants.SPRING_PROFILE_PRODUCTION)) {
+        if (production) {
             if (throwable instanceof HttpMessageConversionException) {
                 return Problem
                     .builder()
@@ -220,4 +269,90 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         // This list is for sure not complete
         return StringUtils.containsAny(message, "org.", "java.", "net.", "javax.", "com.", "io.", "de.", "io.myskool");
     }
+
+    /**
+     * A prebuilt response body with its headers, shared by the responses of all the requests failing the same way: only
+     * the path of the request is added to it, and it is not post-processed.
+     */
+    private static final class ProblemTemplate {
+
+        private final Problem body;
+
+        private final HttpStatus status;
+
+        private final HttpHeaders headers;
+
+        private ProblemTemplate(ThrowableProblem problem, HttpHeaders headers) {
+            // The body post-processed like a DefaultProblem, but for its path
+            this.body =
+                withParameters(
+                    Problem
+                        .builder()
+                        .withType(Problem.DEFAULT_TYPE.equals(problem.getType()) ? ErrorConstants.DEFAULT_TYPE : problem.getType())
+                        .withStatus(problem.getStatus())
+                        .withTitle(problem.getTitle())
+                        .withDetail(problem.getDetail())
+                        .withInstance(problem.getInstance()),
+                    problem
+                )
+                    .build();
+            this.status = HttpStatus.valueOf(Objects.requireNonNull(problem.getStatus()).getStatusCode());
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        }
+
+        private ResponseEntity<Problem> create(ExceptionTranslator translator, Throwable throwable, NativeWebRequest request) {
+            Problem problem = new RequestProblem(body, requestUri(request));
+            translator.log(throwable, problem, request, status);
+            return translator
+                .negotiate(request)
+                .map(contentType -> ResponseEntity.status(status).headers(headers).contentType(contentType).body(problem))
+                .orElseGet(() -> translator.fallback(throwable, problem, request, headers));
+        }
+    }
+
+    /**
+     * The body of a {@link ProblemTemplate} with the path of a request.
+     */
+    private static final class RequestProblem implements Problem {
+
+        private final Problem template;
+
+        private final Map<String, Object> parameters;
+
+        private RequestProblem(Problem template, String path) {
+            this.template = template;
+            this.parameters = new LinkedHashMap<>(template.getParameters());
+            this.parameters.put(PATH_KEY, path);
+        }
+
+        @Override
+        public URI getType() {
+            return template.getType();
+        }
+
+        @Override
+        public String getTitle() {
+            return template.getTitle();
+        }
+
+        @Override
+        public StatusType getStatus() {
+            return template.getStatus();
+        }
+
+        @Override
+        public String getDetail() {
+            return template.getDetail();
+        }
+
+        @Override
+        public URI getInstance() {
+            return template.getInstance();
+        }
+
+        @Override
+        public Map<String, Object> getParameters() {
+            return parameters;
+        }
+    }
 }
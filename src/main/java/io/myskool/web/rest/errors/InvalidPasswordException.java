@@ -1,5 +1,6 @@
 package io.myskool.web.rest.errors;
 
+import io.myskool.config.errors.BusinessExceptions;
 import org.zalando.problem.AbstractThrowableProblem;
 import org.zalando.problem.Status;
 
@@ -10,4 +11,9 @@ public class InvalidPasswordException extends AbstractThrowableProblem {
     public InvalidPasswordException() {
         super(ErrorConstants.INVALID_PASSWORD_TYPE, "Incorrect password", Status.BAD_REQUEST);
     }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return BusinessExceptions.fillInStackTrace(this, super::fillInStackTrace);
+    }
 }
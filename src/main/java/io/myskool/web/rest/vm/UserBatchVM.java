@@ -0,0 +1,41 @@
+package io.myskool.web.rest.vm;
+
+import io.myskool.service.dto.UserOperationDTO;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+
+/**
+ * View Model object for a batch of operations on users.
+ */
+public class UserBatchVM {
+
+    public static final int MAX_OPERATIONS = 1000;
+
+    @Valid
+    @NotEmpty
+    @Size(max = MAX_OPERATIONS)
+    private List<UserOperationDTO> operations;
+
+    /**
+     * Whether the operations after a failed one are still executed, otherwise they are skipped.
+     */
+    private boolean continueOnError = false;
+
+    public List<UserOperationDTO> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<UserOperationDTO> operations) {
+        this.operations = operations;
+    }
+
+    public boolean isContinueOnError() {
+        return continueOnError;
+    }
+
+    public void setContinueOnError(boolean continueOnError) {
+        this.continueOnError = continueOnError;
+    }
+}
@@ -0,0 +1,114 @@
+package io.myskool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of the time to start the application from {@code target/cds} in a new JVM, and of its peak resident
+ * memory, with and without the AppCDS archive of the {@code cds} Maven profile.
+ * <p>
+ * The application runs with the {@code cds} Spring profile: against an in-memory H2 database, exiting once ready.
+ * The peak memory is read from {@code /proc}, so is only reported on Linux.
+ * <p>
+ * Build the archive with {@code ./mvnw -Pprod,cds package -DskipTests}, then run with
+ * {@code ./mvnw -Pdev,benchmark verify -DskipTests -Dbenchmark.include=MyskoolAppCdsStartup}, the JDK which built the
+ * archive being the {@code java} on the path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MyskoolAppCdsStartupBenchmark {
+
+    private static final Path CDS_DIRECTORY = Paths.get("target", "cds");
+
+    private static final String ARCHIVE_OPTION = "-XX:SharedArchiveFile=";
+
+    @Param({ "off", "on" })
+    private String archive;
+
+    @Param("prod,cds")
+    private String profiles;
+
+    private List<String> command;
+
+    private long peakRssKb;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path args = CDS_DIRECTORY.resolve("myskool.args");
+        if (!Files.exists(args)) {
+            throw new IllegalStateException("No " + args + " file, build it first with ./mvnw -Pprod,cds package -DskipTests");
+        }
+        command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String previous = null;
+        for (String option : new String(Files.readAllBytes(args), StandardCharsets.UTF_8).trim().split("\\s+")) {
+            if ("-cp".equals(previous)) {
+                // H2 is appended, the archive is still used as long as its classpath is a prefix of this one
+                command.add(option + File.pathSeparator + "training/*");
+            } else if ("on".equals(archive) || !option.startsWith(ARCHIVE_OPTION)) {
+                command.add(option);
+            }
+            previous = option;
+        }
+        if ("on".equals(archive)) {
+            // Fails instead of silently falling back when the archive does not match
+            command.add("-Xshare:on");
+        }
+        command.addAll(
+            Arrays.asList(MyskoolApp.class.getName(), "--spring.profiles.active=" + profiles, "--logging.level.root=WARN")
+        );
+    }
+
+    @Benchmark
+    public int startup() throws Exception {
+        Process process = new ProcessBuilder(command)
+            .directory(CDS_DIRECTORY.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        Path status = Paths.get("/proc", String.valueOf(process.pid()), "status");
+        long peak = 0;
+        while (!process.waitFor(20, TimeUnit.MILLISECONDS)) {
+            peak = Math.max(peak, peakRssKb(status));
+        }
+        peakRssKb = peak;
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("The application exited with " + process.exitValue() + ", run it from target/cds to see why");
+        }
+        return process.exitValue();
+    }
+
+    private static long peakRssKb(Path status) {
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not on Linux, or the process just exited
+        }
+        return 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (peakRssKb > 0) {
+            System.out.println();
+            System.out.println("Peak RSS: " + peakRssKb / 1024 + " MB");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.myskool;
+
+import io.myskool.config.startup.StartupReport;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmark of the time to start the application until it is ready, with the test configuration and an in-memory
+ * database, with and without the {@code fast-start} profile.
+ * <p>
+ * Each fork starts the application once in a new JVM, as a new instance does, and prints its startup phases.
+ * <p>
+ * Run with {@code ./mvnw -Pdev,benchmark verify -DskipTests -Dbenchmark.include=MyskoolAppStartup}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class MyskoolAppStartupBenchmark {
+
+    @Param({ "default", "fast-start" })
+    private String profile;
+
+    private BufferingApplicationStartup applicationStartup;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        applicationStartup = new BufferingApplicationStartup(10000);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext startup() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(MyskoolApp.class)
+            .applicationStartup(applicationStartup)
+            .properties("server.port=0", "logging.level.root=WARN", "logging.level.io.myskool=WARN");
+        if (!"default".equals(profile)) {
+            builder.profiles(profile);
+        }
+        context = builder.run();
+        return context;
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        StartupReport report = StartupReport.of(
+            applicationStartup.getBufferedTimeline(),
+            Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime()),
+            10
+        );
+        context.close();
+        System.out.println();
+        report.describePhases().stream().limit(15).forEach(System.out::println);
+        System.out.println("Slowest beans: " + report.getSlowestBeans());
+    }
+}
@@ -0,0 +1,69 @@
+package io.myskool.aop.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Unit tests for the {@link UserMutationEventAspect} class.
+ */
+class UserMutationEventAspectTest {
+
+    @Test
+    void shouldRecordTheAnnotatedMethods() throws Exception {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Mutations());
+        proxyFactory.addAspect(new UserMutationEventAspect());
+        Mutations mutations = proxyFactory.getProxy();
+
+        Path file = Files.createTempFile("test-recording", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("io.myskool.UserMutation");
+                recording.start();
+                mutations.createUser();
+                mutations.updateUser();
+                assertThatThrownBy(mutations::deleteUser).isInstanceOf(IllegalStateException.class);
+                mutations.getUser();
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> events = RecordingFile
+                .readAllEvents(file)
+                .stream()
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .collect(Collectors.toList());
+            assertThat(events)
+                .extracting(event -> event.getString("operation"))
+                .containsExactly("createUser", "updateCurrentUser", "deleteUser");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static class Mutations {
+
+        @UserMutation
+        public void createUser() {}
+
+        @UserMutation("updateCurrentUser")
+        public void updateUser() {}
+
+        @UserMutation
+        public void deleteUser() {
+            throw new IllegalStateException("Failed");
+        }
+
+        public void getUser() {}
+    }
+}
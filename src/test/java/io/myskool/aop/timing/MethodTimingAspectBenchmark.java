@@ -0,0 +1,61 @@
+package io.myskool.aop.timing;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.myskool.aop.logging.LoggingAspect;
+import io.myskool.domain.User;
+import io.myskool.service.dto.UserDTO;
+import io.myskool.service.mapper.UserMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Benchmark of the overhead of the {@link MethodTimingAspect} on a cheap service method, compared with the
+ * {@link LoggingAspect} with DEBUG logging off, as it runs in production, and with no aspect at all.
+ * <p>
+ * Run with {@code ./mvnw -Pdev,benchmark verify -DskipTests -Dbenchmark.include=MethodTimingAspect}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MethodTimingAspectBenchmark {
+
+    @Param({ "none", "logging", "timing", "timing-sampled" })
+    private String aspect;
+
+    private UserMapper userMapper;
+
+    private User user;
+
+    @Setup
+    public void setup() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserMapper());
+        switch (aspect) {
+            case "logging":
+                proxyFactory.addAspect(new LoggingAspect(new MockEnvironment()));
+                break;
+            case "timing":
+                proxyFactory.addAspect(new MethodTimingAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), 1.0));
+                break;
+            case "timing-sampled":
+                proxyFactory.addAspect(new MethodTimingAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), 0.1));
+                break;
+            default:
+                break;
+        }
+        userMapper = proxyFactory.getProxy();
+        user = new User();
+        user.setId(1L);
+        user.setLogin("john");
+    }
+
+    @Benchmark
+    public UserDTO userToUserDTO() {
+        return userMapper.userToUserDTO(user);
+    }
+}
@@ -0,0 +1,86 @@
+package io.myskool.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.myskool.domain.User;
+import io.myskool.service.mapper.UserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Unit tests for the {@link MethodTimingAspect} class.
+ */
+class MethodTimingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        user = new User();
+        user.setId(1L);
+        user.setLogin("john");
+    }
+
+    @Test
+    void shouldTimeEachCallWithOneCachedTimer() {
+        UserMapper userMapper = proxy(1.0);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(userMapper.userToUserDTO(user).getLogin()).isEqualTo("john");
+        }
+
+        Timer timer = meterRegistry
+            .get(MethodTimingAspect.METRIC_NAME)
+            .tag("class", "UserMapper")
+            .tag("method", "userToUserDTO")
+            .tag("outcome", "success")
+            .timer();
+        assertThat(timer.count()).isEqualTo(3);
+        assertThat(meterRegistry.getMeters()).hasSize(1);
+    }
+
+    @Test
+    void shouldTimeFailedCallsSeparately() {
+        UserMapper userMapper = proxy(1.0);
+
+        assertThatThrownBy(() -> userMapper.userToUserDTO(null)).isInstanceOf(NullPointerException.class);
+        userMapper.userToUserDTO(user);
+
+        assertThat(meterRegistry.get(MethodTimingAspect.METRIC_NAME).tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MethodTimingAspect.METRIC_NAME).tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotTimeWithZeroSampleRate() {
+        UserMapper userMapper = proxy(0.0);
+
+        userMapper.userToUserDTO(user);
+
+        assertThat(meterRegistry.find(MethodTimingAspect.METRIC_NAME).timers()).isEmpty();
+    }
+
+    @Test
+    void shouldTimeASampleOfTheCalls() {
+        UserMapper userMapper = proxy(0.5);
+
+        for (int i = 0; i < 1000; i++) {
+            userMapper.userToUserDTO(user);
+        }
+
+        assertThat(meterRegistry.get(MethodTimingAspect.METRIC_NAME).timer().count()).isBetween(300L, 700L);
+    }
+
+    private UserMapper proxy(double sampleRate) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserMapper());
+        proxyFactory.addAspect(new MethodTimingAspect(meterRegistry, sampleRate));
+        return proxyFactory.getProxy();
+    }
+}
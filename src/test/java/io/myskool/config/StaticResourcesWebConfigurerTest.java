@@ -3,21 +3,35 @@ package io.myskool.config;
 import static io.myskool.config.StaticResourcesWebConfiguration.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterDefaults;
 import tech.jhipster.config.JHipsterProperties;
 
 class StaticResourcesWebConfigurerTest {
 
     public static final int MAX_AGE_TEST = 5;
+    private static final String BUNDLE = "/app/test.0123456789abcdef.bundle.js";
     public StaticResourcesWebConfiguration staticResourcesWebConfiguration;
     private ResourceHandlerRegistry resourceHandlerRegistry;
     private MockServletContext servletContext;
@@ -55,6 +69,7 @@ class StaticResourcesWebConfigurerTest {
         verify(staticResourcesWebConfiguration, times(1)).getCacheControl();
         verify(resourceHandlerRegistration, times(1)).setCacheControl(ccExpected);
         verify(resourceHandlerRegistration, times(1)).addResourceLocations(RESOURCE_LOCATIONS);
+        verify(resourceHandlerRegistration, times(1)).resourceChain(true);
     }
 
     @Test
@@ -62,7 +77,7 @@ class StaticResourcesWebConfigurerTest {
         CacheControl cacheExpected = CacheControl.maxAge(JHipsterDefaults.Http.Cache.timeToLiveInDays, TimeUnit.DAYS).cachePublic();
         assertThat(staticResourcesWebConfiguration.getCacheControl())
             .extracting(CacheControl::getHeaderValue)
-            .isEqualTo(cacheExpected.getHeaderValue());
+            .isEqualTo(cacheExpected.getHeaderValue() + ", immutable");
     }
 
     @Test
@@ -71,6 +86,53 @@ class StaticResourcesWebConfigurerTest {
         CacheControl cacheExpected = CacheControl.maxAge(MAX_AGE_TEST, TimeUnit.DAYS).cachePublic();
         assertThat(staticResourcesWebConfiguration.getCacheControl())
             .extracting(CacheControl::getHeaderValue)
-            .isEqualTo(cacheExpected.getHeaderValue());
+            .isEqualTo(cacheExpected.getHeaderValue() + ", immutable");
     }
+
+    @Test
+    void shouldServeTheBrotliVariantWhenAccepted() throws Exception {
+        staticResourcesMockMvc()
+            .perform(get(BUNDLE).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, staticResourcesWebConfiguration.getCacheControl().getHeaderValue()))
+            .andExpect(content().bytes(staticResource(BUNDLE + ".br")));
+    }
+
+    @Test
+    void shouldServeTheGzipVariantWhenAccepted() throws Exception {
+        staticResourcesMockMvc()
+            .perform(get(BUNDLE).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(content().bytes(staticResource(BUNDLE + ".gz")));
+    }
+
+    @Test
+    void shouldServeTheResourceAsItIsWithoutAcceptEncoding() throws Exception {
+        staticResourcesMockMvc()
+            .perform(get(BUNDLE))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().bytes(staticResource(BUNDLE)));
+    }
+
+    private MockMvc staticResourcesMockMvc() {
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().setActiveProfiles(JHipsterConstants.SPRING_PROFILE_PRODUCTION);
+        context.register(WebMvcTestConfiguration.class, StaticResourcesWebConfiguration.class);
+        context.addBeanFactoryPostProcessor(beanFactory -> beanFactory.registerSingleton("jHipsterProperties", props));
+        context.refresh();
+        return MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    private static byte[] staticResource(String path) throws Exception {
+        return StreamUtils.copyToByteArray(new ClassPathResource("static" + path).getInputStream());
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class WebMvcTestConfiguration {}
 }
@@ -2,6 +2,7 @@ package io.myskool.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -10,12 +11,14 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.File;
 import java.util.*;
 import javax.servlet.*;
 import org.h2.server.web.WebServlet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.mock.env.MockEnvironment;
@@ -147,4 +150,39 @@ class WebConfigurerTest {
             .andExpect(status().isOk())
             .andExpect(header().doesNotExist(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
     }
+
+    @Test
+    void shouldSizeTheBulkheadsForTheWorkerThreads() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ServerProperties serverProperties = new ServerProperties();
+        serverProperties.getUndertow().getThreads().setWorker(16);
+
+        webConfigurer.bulkheadFilter(meterRegistry, new ApplicationProperties(), serverProperties);
+
+        assertThat(meterRegistry.get("myskool.http.bulkhead.available").tag("group", "admin").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("myskool.http.bulkhead.available").tag("group", "authenticate").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("myskool.http.bulkhead.available").tag("group", "account").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("myskool.http.bulkhead.available").tag("group", "default").gauge().value()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldRejectABulkheadNotBelowTheWorkerThreads() {
+        ServerProperties serverProperties = new ServerProperties();
+        serverProperties.getUndertow().getThreads().setWorker(16);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getBulkhead().getApi().setMaxConcurrent(16);
+
+        assertThatThrownBy(() -> webConfigurer.bulkheadFilter(new SimpleMeterRegistry(), applicationProperties, serverProperties))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("application.bulkhead.api.max-concurrent");
+    }
+
+    @Test
+    void shouldDefaultTheWorkerThreadsLikeUndertow() {
+        ServerProperties.Undertow.Threads threads = new ServerProperties().getUndertow().getThreads();
+        assertThat(WebConfigurer.undertowWorkerThreads(threads)).isEqualTo(Math.max(Runtime.getRuntime().availableProcessors(), 2) * 8);
+
+        threads.setIo(3);
+        assertThat(WebConfigurer.undertowWorkerThreads(threads)).isEqualTo(24);
+    }
 }
@@ -0,0 +1,100 @@
+package io.myskool.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.myskool.web.filter.BulkheadFilter;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Unit tests for the {@link BulkheadRoutingDataSource} class, using two H2 databases.
+ */
+class BulkheadRoutingDataSourceTest {
+
+    private Connection defaultKeepAlive;
+
+    private Connection bulkheadKeepAlive;
+
+    private BulkheadRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        JdbcDataSource defaultDataSource = createDatabase("default");
+        JdbcDataSource bulkheadDataSource = createDatabase("bulkhead");
+        defaultKeepAlive = defaultDataSource.getConnection();
+        bulkheadKeepAlive = bulkheadDataSource.getConnection();
+        execute(defaultKeepAlive, "CREATE TABLE node (name VARCHAR(10))", "INSERT INTO node VALUES ('default')");
+        execute(bulkheadKeepAlive, "CREATE TABLE node (name VARCHAR(10))", "INSERT INTO node VALUES ('bulkhead')");
+        routingDataSource = new BulkheadRoutingDataSource(defaultDataSource, bulkheadDataSource, Set.of("admin"));
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        RequestContextHolder.resetRequestAttributes();
+        execute(defaultKeepAlive, "DROP ALL OBJECTS");
+        execute(bulkheadKeepAlive, "DROP ALL OBJECTS");
+        defaultKeepAlive.close();
+        bulkheadKeepAlive.close();
+    }
+
+    @Test
+    void shouldRouteTheRequestsOfTheGroupsToTheirPool() throws SQLException {
+        inRequestOfGroup("admin");
+
+        assertThat(currentNode()).isEqualTo("bulkhead");
+    }
+
+    @Test
+    void shouldRouteTheRequestsOfOtherGroupsToTheDefaultPool() throws SQLException {
+        inRequestOfGroup(BulkheadFilter.DEFAULT_GROUP);
+
+        assertThat(currentNode()).isEqualTo("default");
+    }
+
+    @Test
+    void shouldRouteOutsideOfRequestsToTheDefaultPool() throws SQLException {
+        assertThat(currentNode()).isEqualTo("default");
+    }
+
+    private static void inRequestOfGroup(String group) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(BulkheadFilter.GROUP_ATTRIBUTE, group);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static JdbcDataSource createDatabase(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bulkhead-" + name);
+        return dataSource;
+    }
+
+    private String currentNode() throws SQLException {
+        try (
+            Connection connection = routingDataSource.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT name FROM node")
+        ) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static void execute(Connection connection, String... sqls) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
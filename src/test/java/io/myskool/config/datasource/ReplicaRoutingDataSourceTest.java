@@ -0,0 +1,137 @@
+package io.myskool.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for the {@link ReplicaRoutingDataSource} class, using two H2 databases.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag_seconds FROM replica_status";
+
+    private JdbcDataSource primary;
+
+    private JdbcDataSource replica;
+
+    private Connection primaryKeepAlive;
+
+    private Connection replicaKeepAlive;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        primary = createDatabase("primary");
+        replica = createDatabase("replica");
+        primaryKeepAlive = primary.getConnection();
+        replicaKeepAlive = replica.getConnection();
+        execute(primaryKeepAlive, "CREATE TABLE node (name VARCHAR(10))", "INSERT INTO node VALUES ('primary')");
+        execute(
+            replicaKeepAlive,
+            "CREATE TABLE node (name VARCHAR(10))",
+            "INSERT INTO node VALUES ('replica')",
+            "CREATE TABLE replica_status (lag_seconds DOUBLE)",
+            "INSERT INTO replica_status VALUES (0)"
+        );
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        execute(primaryKeepAlive, "DROP ALL OBJECTS");
+        execute(replicaKeepAlive, "DROP ALL OBJECTS");
+        primaryKeepAlive.close();
+        replicaKeepAlive.close();
+    }
+
+    @Test
+    void shouldRouteReadWriteTransactionsToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routingDataSource = createRoutingDataSource(replica);
+
+        assertThat(currentNode(routingDataSource)).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() throws SQLException {
+        ReplicaRoutingDataSource routingDataSource = createRoutingDataSource(replica);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(currentNode(routingDataSource)).isEqualTo("replica");
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLags() throws SQLException {
+        ReplicaRoutingDataSource routingDataSource = createRoutingDataSource(replica);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        execute(replicaKeepAlive, "UPDATE replica_status SET lag_seconds = 30");
+        routingDataSource.checkReplica();
+
+        assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+        assertThat(routingDataSource.getReplicaLag()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(currentNode(routingDataSource)).isEqualTo("primary");
+
+        execute(replicaKeepAlive, "UPDATE replica_status SET lag_seconds = 1");
+        routingDataSource.checkReplica();
+
+        assertThat(routingDataSource.isReplicaAvailable()).isTrue();
+        assertThat(currentNode(routingDataSource)).isEqualTo("replica");
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsUnreachable() throws SQLException {
+        JdbcDataSource missingReplica = new JdbcDataSource();
+        missingReplica.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        ReplicaRoutingDataSource routingDataSource = createRoutingDataSource(missingReplica);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+        assertThat(currentNode(routingDataSource)).isEqualTo("primary");
+    }
+
+    private ReplicaRoutingDataSource createRoutingDataSource(JdbcDataSource replicaDataSource) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+            primary,
+            replicaDataSource,
+            LAG_QUERY,
+            Duration.ofSeconds(10),
+            Duration.ZERO
+        );
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    private static JdbcDataSource createDatabase(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name);
+        return dataSource;
+    }
+
+    private static String currentNode(ReplicaRoutingDataSource routingDataSource) throws SQLException {
+        try (
+            Connection connection = routingDataSource.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT name FROM node")
+        ) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static void execute(Connection connection, String... sqls) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
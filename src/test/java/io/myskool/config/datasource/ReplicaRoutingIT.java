@@ -0,0 +1,175 @@
+package io.myskool.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.myskool.IntegrationTest;
+import io.myskool.domain.User;
+import io.myskool.repository.AuthorityRepository;
+import io.myskool.repository.UserRepository;
+import io.myskool.service.UserService;
+import io.myskool.web.filter.BulkheadFilter;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Integration tests for the routing of the JPA transactions by the {@link ReplicaRoutingDataSource}, in front of the
+ * {@link BulkheadRoutingDataSource}, the replica being a second H2 database holding a copy of the primary plus an
+ * authority of its own.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "application.datasource.replica.enabled=true",
+        "application.datasource.replica.url=" + ReplicaRoutingIT.REPLICA_URL,
+        "application.datasource.replica.check-interval=0s",
+        "application.bulkhead.pool.enabled=true",
+    }
+)
+class ReplicaRoutingIT {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:myskool-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final String REPLICA_AUTHORITY = "ROLE_REPLICA";
+
+    private static final String LOGIN = "admin";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Connection replicaConnection;
+
+    @BeforeEach
+    void copyPrimaryToReplica() throws SQLException {
+        JdbcDataSource replica = new JdbcDataSource();
+        replica.setURL(REPLICA_URL);
+        replicaConnection = replica.getConnection();
+        List<String> script = new ArrayList<>();
+        try (
+            Connection primaryConnection = dataSource.getConnection();
+            Statement statement = primaryConnection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SCRIPT")
+        ) {
+            while (resultSet.next()) {
+                script.add(resultSet.getString(1));
+            }
+        }
+        try (Statement statement = replicaConnection.createStatement()) {
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+            statement.execute("INSERT INTO jhi_authority (name) VALUES ('" + REPLICA_AUTHORITY + "')");
+        }
+    }
+
+    @AfterEach
+    void dropReplica() throws SQLException {
+        try (Statement statement = replicaConnection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        replicaConnection.close();
+    }
+
+    @Test
+    void shouldInitializeTheRoutingDataSource() {
+        assertThat(dataSource).isInstanceOf(LazyRoutingDataSource.class);
+        DataSource routingDataSource = ((LazyRoutingDataSource) dataSource).getTargetDataSource();
+
+        assertThat(routingDataSource).isInstanceOf(ReplicaRoutingDataSource.class);
+        assertThat(((ReplicaRoutingDataSource) routingDataSource).getResolvedDataSources()).hasSize(2);
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        assertThat(userService.getAuthorities()).contains(REPLICA_AUTHORITY);
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsOfABulkheadGroupToReplica() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(BulkheadFilter.GROUP_ATTRIBUTE, "admin");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertThat(userService.getAuthorities()).contains(REPLICA_AUTHORITY);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void shouldRouteReadWriteTransactionsToPrimary() {
+        List<String> authorities = new TransactionTemplate(transactionManager)
+            .execute(status -> authorityRepository.findAll().stream().map(authority -> authority.getName()).collect(Collectors.toList()));
+
+        assertThat(authorities).isNotEmpty().doesNotContain(REPLICA_AUTHORITY);
+    }
+
+    @Test
+    void shouldNotCacheTheUsersReadFromALaggingReplica() {
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        String firstName = setFirstNameOnPrimary("Primary");
+        try {
+            usersByLogin.evict(LOGIN);
+
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            Optional<User> user = readOnly.execute(status -> userRepository.findOneWithAuthoritiesByLogin(LOGIN));
+
+            assertThat(user).get().extracting(User::getFirstName).isEqualTo(firstName);
+            assertThat(usersByLogin.get(LOGIN)).isNull();
+
+            assertThat(userService.getUserWithAuthoritiesByLogin(LOGIN)).get().extracting(User::getFirstName).isEqualTo("Primary");
+            assertThat(usersByLogin.get(LOGIN, User.class)).extracting(User::getFirstName).isEqualTo("Primary");
+        } finally {
+            setFirstNameOnPrimary(firstName);
+            usersByLogin.evict(LOGIN);
+        }
+    }
+
+    private String setFirstNameOnPrimary(String firstName) {
+        return new TransactionTemplate(transactionManager)
+            .execute(
+                status -> {
+                    User user = userRepository.findOneByLogin(LOGIN).orElseThrow();
+                    String previousFirstName = user.getFirstName();
+                    user.setFirstName(firstName);
+                    return previousFirstName;
+                }
+            );
+    }
+}
@@ -0,0 +1,36 @@
+package io.myskool.config.errors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.myskool.security.UserNotActivatedException;
+import io.myskool.service.InvalidPasswordException;
+import io.myskool.web.rest.errors.LoginAlreadyUsedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BusinessExceptions}.
+ */
+class BusinessExceptionsTest {
+
+    @AfterEach
+    void tearDown() {
+        BusinessExceptions.setStackTraceEnabled(false);
+    }
+
+    @Test
+    void testStacklessByDefault() {
+        assertThat(new InvalidPasswordException().getStackTrace()).isEmpty();
+        assertThat(new LoginAlreadyUsedException().getStackTrace()).isEmpty();
+        assertThat(new UserNotActivatedException("Not activated").getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void testStackTraceWhenEnabled() {
+        BusinessExceptions.setStackTraceEnabled(true);
+
+        assertThat(new InvalidPasswordException().getStackTrace()).isNotEmpty();
+        assertThat(new LoginAlreadyUsedException().getStackTrace()).isNotEmpty();
+        assertThat(new UserNotActivatedException("Not activated").getStackTrace()).isNotEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package io.myskool.config.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.myskool.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthContributorRegistry;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Integration tests for the {@link CachedHealthContributorPostProcessor}.
+ */
+@IntegrationTest
+class CachedHealthContributorsIT {
+
+    @Autowired
+    private HealthContributorRegistry healthContributorRegistry;
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Test
+    void shouldCacheDataSourceAndCacheContributors() {
+        HealthContributor db = healthContributorRegistry.getContributor("db");
+        HealthContributor cache = healthContributorRegistry.getContributor("cache");
+
+        assertThat(db).isInstanceOf(CachedHealthIndicator.class);
+        assertThat(cache).isInstanceOf(CachedHealthIndicator.class);
+        ((CachedHealthIndicator) db).refresh();
+        ((CachedHealthIndicator) cache).refresh();
+        assertThat(healthEndpoint.healthForPath("db").getStatus()).isEqualTo(Status.UP);
+        assertThat(healthEndpoint.healthForPath("cache").getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,66 @@
+package io.myskool.config.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Unit tests for the {@link CachedHealthIndicator} class.
+ */
+class CachedHealthIndicatorTest {
+
+    private final AtomicInteger checks = new AtomicInteger();
+
+    @Test
+    void shouldBeOutOfServiceUntilFirstRefresh() {
+        CachedHealthIndicator indicator = new CachedHealthIndicator("test", this::check, Duration.ofMinutes(1));
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(checks).hasValue(0);
+    }
+
+    @Test
+    void shouldServeLastResultWithoutChecking() {
+        CachedHealthIndicator indicator = new CachedHealthIndicator("test", this::check, Duration.ofMinutes(1));
+        indicator.refresh();
+
+        for (int i = 0; i < 3; i++) {
+            Health health = indicator.health();
+            assertThat(health.getStatus()).isEqualTo(Status.UP);
+            assertThat(health.getDetails()).containsEntry("checks", 1).containsKey("checkedAt");
+        }
+        assertThat(checks).hasValue(1);
+    }
+
+    @Test
+    void shouldBeDownWhenCheckFails() {
+        HealthIndicator failing = () -> {
+            throw new IllegalStateException("Connection is not available");
+        };
+        CachedHealthIndicator indicator = new CachedHealthIndicator("test", failing, Duration.ofMinutes(1));
+        indicator.refresh();
+
+        Health health = indicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails()).containsEntry("error", "java.lang.IllegalStateException: Connection is not available");
+    }
+
+    @Test
+    void shouldBeDownWhenResultIsStale() {
+        CachedHealthIndicator indicator = new CachedHealthIndicator("test", this::check, Duration.ZERO);
+        indicator.refresh();
+
+        Health health = indicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails()).containsEntry("lastStatus", "UP");
+    }
+
+    private Health check() {
+        return Health.up().withDetail("checks", checks.incrementAndGet()).build();
+    }
+}
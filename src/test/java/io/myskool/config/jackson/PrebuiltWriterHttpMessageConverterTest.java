@@ -0,0 +1,88 @@
+package io.myskool.config.jackson;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.myskool.service.dto.AdminUserDTO;
+import io.myskool.service.dto.UserDTO;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+/**
+ * Tests for {@link PrebuiltWriterHttpMessageConverter}.
+ */
+class PrebuiltWriterHttpMessageConverterTest {
+
+    private static final Type ADMIN_USER_LIST = new TypeReference<List<AdminUserDTO>>() {}.getType();
+
+    private ObjectMapper objectMapper;
+
+    private PrebuiltWriterHttpMessageConverter converter;
+
+    private List<AdminUserDTO> users;
+
+    @BeforeEach
+    void setup() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        converter =
+            new PrebuiltWriterHttpMessageConverter(
+                objectMapper,
+                List.of(objectMapper.getTypeFactory().constructCollectionType(List.class, AdminUserDTO.class))
+            );
+        AdminUserDTO user = new AdminUserDTO();
+        user.setId(1L);
+        user.setLogin("john");
+        user.setEmail("john@localhost");
+        user.setCreatedDate(Instant.parse("2021-01-01T00:00:00Z"));
+        user.setAuthorities(Set.of("ROLE_USER"));
+        users = List.of(user);
+    }
+
+    @Test
+    void testWritesHotTypeAsDefaultConverter() throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(users, ADMIN_USER_LIST, MediaType.APPLICATION_JSON, outputMessage);
+
+        assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8)).isEqualTo(defaultOutput(users, ADMIN_USER_LIST));
+        assertThat(outputMessage.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void testWritesOtherTypesAsDefaultConverter() throws Exception {
+        UserDTO user = new UserDTO();
+        user.setId(2L);
+        user.setLogin("jane");
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(user, UserDTO.class, MediaType.APPLICATION_JSON, outputMessage);
+
+        assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8)).isEqualTo(defaultOutput(user, UserDTO.class));
+    }
+
+    @Test
+    void testWritesOtherCharsetsAsDefaultConverter() throws Exception {
+        MediaType latin1 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.ISO_8859_1);
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(users, ADMIN_USER_LIST, latin1, outputMessage);
+
+        assertThat(outputMessage.getBodyAsString(StandardCharsets.ISO_8859_1)).isEqualTo(defaultOutput(users, ADMIN_USER_LIST));
+    }
+
+    private String defaultOutput(Object object, Type type) throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        new MappingJackson2HttpMessageConverter(objectMapper).write(object, type, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+    }
+}
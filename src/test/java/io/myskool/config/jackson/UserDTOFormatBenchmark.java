@@ -0,0 +1,108 @@
+package io.myskool.config.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.myskool.service.dto.AdminUserDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmark of the formats negotiated by the REST resources for a page of {@link AdminUserDTO}s, as returned by
+ * {@code /api/admin/users}: the cost to serialize it on the server, the cost to parse it on the client, and the size
+ * of the payload, printed after each iteration.
+ * <p>
+ * Run with {@code ./mvnw -Pdev,benchmark verify -DskipTests -Dbenchmark.include=UserDTOFormat}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDTOFormatBenchmark {
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    @Param("20")
+    private int pageSize;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private List<AdminUserDTO> users;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        JsonFactory factory;
+        switch (format) {
+            case "cbor":
+                factory = new CBORFactory();
+                break;
+            case "smile":
+                factory = new SmileFactory();
+                break;
+            default:
+                factory = new JsonFactory();
+                break;
+        }
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
+            .json()
+            .factory(factory)
+            .modulesToInstall(new JavaTimeModule(), new Jdk8Module())
+            .build();
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, AdminUserDTO.class);
+        writer = objectMapper.writerFor(listType);
+        reader = objectMapper.readerFor(listType);
+        users = new ArrayList<>();
+        for (long i = 0; i < pageSize; i++) {
+            AdminUserDTO user = new AdminUserDTO();
+            user.setId(i);
+            user.setLogin("user-" + i);
+            user.setFirstName("First " + i);
+            user.setLastName("Last " + i);
+            user.setEmail("user-" + i + "@localhost");
+            user.setImageUrl("http://placehold.it/50x50");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setCreatedBy("system");
+            user.setCreatedDate(Instant.parse("2021-01-01T00:00:00Z"));
+            user.setLastModifiedBy("admin");
+            user.setLastModifiedDate(Instant.parse("2021-02-01T00:00:00Z"));
+            user.setAuthorities(Set.of("ROLE_USER"));
+            users.add(user);
+        }
+        payload = writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> parse() throws Exception {
+        return reader.readValue(payload);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        System.out.println();
+        System.out.println("Payload: " + payload.length + " bytes");
+    }
+}
@@ -0,0 +1,92 @@
+package io.myskool.config.jackson;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import io.myskool.service.dto.AdminUserDTO;
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmark of the serialization of a page of {@link AdminUserDTO}s, as returned by {@code /api/admin/users}: with
+ * the {@link ObjectMapper} as configured by Spring Boot, or with Afterburner, and with a writer created per response
+ * as the default message converter does, or prebuilt as the {@link PrebuiltWriterHttpMessageConverter} does.
+ * <p>
+ * Run with {@code ./mvnw -Pdev,benchmark verify -DskipTests -Dbenchmark.include=UserDTOSerialization}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDTOSerializationBenchmark {
+
+    @Param({ "default", "afterburner" })
+    private String mapper;
+
+    @Param("20")
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private JavaType listType;
+
+    private ObjectWriter prebuiltWriter;
+
+    private List<AdminUserDTO> users;
+
+    @Setup
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("afterburner".equals(mapper)) {
+            builder.modulesToInstall(new JavaTimeModule(), new Jdk8Module(), new AfterburnerModule());
+        } else {
+            builder.modulesToInstall(new JavaTimeModule(), new Jdk8Module());
+        }
+        objectMapper = builder.build();
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, AdminUserDTO.class);
+        prebuiltWriter = objectMapper.writerFor(listType);
+        users = new ArrayList<>();
+        for (long i = 0; i < pageSize; i++) {
+            AdminUserDTO user = new AdminUserDTO();
+            user.setId(i);
+            user.setLogin("user-" + i);
+            user.setFirstName("First " + i);
+            user.setLastName("Last " + i);
+            user.setEmail("user-" + i + "@localhost");
+            user.setImageUrl("http://placehold.it/50x50");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setCreatedBy("system");
+            user.setCreatedDate(Instant.parse("2021-01-01T00:00:00Z"));
+            user.setLastModifiedBy("admin");
+            user.setLastModifiedDate(Instant.parse("2021-02-01T00:00:00Z"));
+            user.setAuthorities(Set.of("ROLE_USER"));
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public int writerPerResponse() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        objectMapper.writer().forType(listType).writeValue(out, users);
+        return out.size();
+    }
+
+    @Benchmark
+    public int prebuiltWriter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        prebuiltWriter.writeValue(out, users);
+        return out.size();
+    }
+}
@@ -0,0 +1,113 @@
+package io.myskool.config.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.myskool.config.ApplicationProperties;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Unit tests for the {@link JfrEndpoint} class.
+ */
+class JfrEndpointTest {
+
+    private ApplicationProperties.Jfr properties;
+
+    private JfrEndpoint jfrEndpoint;
+
+    @BeforeEach
+    void setup() {
+        properties = new ApplicationProperties().getJfr();
+        properties.setMaxRecordings(1);
+        jfrEndpoint = new JfrEndpoint(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jfrEndpoint.recordings().forEach(recording -> jfrEndpoint.delete(recording.getId()));
+    }
+
+    @Test
+    void shouldStartStopAndDeleteRecording() {
+        JfrEndpoint.RecordingDescriptor started = jfrEndpoint.start("test", "profile", null);
+
+        assertThat(started.getState()).isEqualTo(RecordingState.RUNNING);
+        assertThat(started.getSettings()).isEqualTo("profile");
+        assertThat(started.getDuration()).isEqualTo(properties.getDefaultDuration());
+        assertThat(jfrEndpoint.recordings()).extracting(JfrEndpoint.RecordingDescriptor::getId).containsExactly(started.getId());
+
+        WebEndpointResponse<JfrEndpoint.RecordingDescriptor> stopped = jfrEndpoint.stop(started.getId());
+        assertThat(stopped.getBody().getState()).isEqualTo(RecordingState.STOPPED);
+
+        assertThat(jfrEndpoint.delete(started.getId()).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NO_CONTENT);
+        assertThat(jfrEndpoint.recordings()).isEmpty();
+        assertThat(jfrEndpoint.stop(started.getId()).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void shouldRejectSettingsNotAllowed() {
+        assertThatThrownBy(() -> jfrEndpoint.start(null, "/tmp/custom.jfc", null)).isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    @Test
+    void shouldRejectDurationAboveMax() {
+        assertThatThrownBy(() -> jfrEndpoint.start(null, null, properties.getMaxDuration().plusSeconds(1)))
+            .isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    @Test
+    void shouldRejectRecordingsAboveMax() {
+        jfrEndpoint.start(null, null, null);
+
+        assertThatThrownBy(() -> jfrEndpoint.start(null, null, null)).isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    @Test
+    void shouldDownloadRecordingWithCustomEvents() throws Exception {
+        long id = jfrEndpoint.start(null, null, Duration.ofMinutes(1)).getId();
+        RecordingPasswordEncoder passwordEncoder = new RecordingPasswordEncoder(new BCryptPasswordEncoder(4));
+        passwordEncoder.matches("password", passwordEncoder.encode("password"));
+        UserMutationEvent.start("createUser").commit();
+        jfrEndpoint.stop(id);
+
+        Resource resource = jfrEndpoint.download(id).getBody();
+
+        Path file = Files.createTempFile("test-recording", ".jfr");
+        try {
+            try (InputStream inputStream = resource.getInputStream()) {
+                Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            assertThat(resource.getFile()).doesNotExist();
+            List<RecordedEvent> events = RecordingFile
+                .readAllEvents(file)
+                .stream()
+                .filter(event -> event.getEventType().getName().startsWith("io.myskool."))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .collect(Collectors.toList());
+            assertThat(events)
+                .extracting(event -> event.getEventType().getName())
+                .containsExactly("io.myskool.PasswordEncoder", "io.myskool.PasswordEncoder", "io.myskool.UserMutation");
+            assertThat(events.get(1).getBoolean("matched")).isTrue();
+            assertThat(events.get(2).getString("operation")).isEqualTo("createUser");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.myskool.config.liquibase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.myskool.IntegrationTest;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the {@link TaggingSpringLiquibase} and {@link SchemaVersionVerifier}.
+ */
+@IntegrationTest
+class SchemaVersionIT {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void shouldTagTheDatabaseWithTheChangelogVersion() {
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(dataSource, null, "DATABASECHANGELOG", ChangelogVersion.current());
+
+        assertThat(verifier.currentVersion()).isEqualTo(ChangelogVersion.current()).startsWith("changelog-");
+        verifier.afterPropertiesSet();
+    }
+
+    @Test
+    void shouldFailWhenTheDatabaseIsAtAnotherVersion() {
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(dataSource, null, "DATABASECHANGELOG", "changelog-0000000000000000");
+
+        assertThatThrownBy(verifier::afterPropertiesSet)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(ChangelogVersion.current())
+            .hasMessageContaining("migrate");
+    }
+}
@@ -0,0 +1,76 @@
+package io.myskool.config.mail;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+/**
+ * Benchmark of the {@link PooledJavaMailSender} against the default {@link JavaMailSenderImpl}, sending batches
+ * to a local GreenMail SMTP server.
+ * <p>
+ * Run with {@code ./mvnw -Pdev,benchmark verify -DskipTests -Dbenchmark.include=PooledJavaMailSender}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PooledJavaMailSenderBenchmark {
+
+    @Param({ "pooled", "default" })
+    private String sender;
+
+    @Param({ "1", "10" })
+    private int batchSize;
+
+    private GreenMail greenMail;
+
+    private JavaMailSenderImpl mailSender;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+        mailSender = "pooled".equals(sender) ? new PooledJavaMailSender(1, Duration.ofMinutes(1)) : new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @Setup(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (mailSender instanceof PooledJavaMailSender) {
+            ((PooledJavaMailSender) mailSender).destroy();
+        }
+        greenMail.stop();
+    }
+
+    /**
+     * Sends one batch, the score being in batches per second.
+     */
+    @Benchmark
+    public void sendBatch() throws MessagingException {
+        MimeMessage[] messages = new MimeMessage[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+            message.setTo("user" + i + "@example.com");
+            message.setFrom("myskool@localhost");
+            message.setSubject("Myskool account activation");
+            message.setText("<html><body>Your account has been created.</body></html>", true);
+            messages[i] = mimeMessage;
+        }
+        mailSender.send(messages);
+    }
+}
@@ -0,0 +1,113 @@
+package io.myskool.config.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.time.Duration;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+/**
+ * Unit tests for the {@link PooledJavaMailSender} class, against a GreenMail SMTP server.
+ */
+class PooledJavaMailSenderTest {
+
+    private GreenMail greenMail;
+
+    @BeforeEach
+    void setup() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        greenMail.stop();
+    }
+
+    @Test
+    void shouldReuseConnectionAcrossSends() throws Exception {
+        CountingMailSender mailSender = createMailSender(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            mailSender.send(createMessage(mailSender, "john.doe@example.com"), createMessage(mailSender, "jane.doe@example.com"));
+        }
+
+        assertThat(mailSender.connections).isEqualTo(1);
+        assertThat(greenMail.waitForIncomingEmail(5000, 6)).isTrue();
+        assertThat(mailSender.getIdleConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCloseIdleConnections() throws Exception {
+        CountingMailSender mailSender = createMailSender(Duration.ZERO);
+
+        mailSender.send(createMessage(mailSender, "john.doe@example.com"));
+        mailSender.send(createMessage(mailSender, "john.doe@example.com"));
+
+        assertThat(mailSender.connections).isEqualTo(2);
+        assertThat(greenMail.waitForIncomingEmail(5000, 2)).isTrue();
+    }
+
+    @Test
+    void shouldReconnectWhenServerDroppedConnection() throws Exception {
+        CountingMailSender mailSender = createMailSender(Duration.ofMinutes(1));
+        mailSender.send(createMessage(mailSender, "john.doe@example.com"));
+
+        greenMail.stop();
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+        mailSender.send(createMessage(mailSender, "john.doe@example.com"));
+
+        assertThat(mailSender.connections).isEqualTo(2);
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+    }
+
+    @Test
+    void shouldCloseIdleConnectionsOnDestroy() throws Exception {
+        CountingMailSender mailSender = createMailSender(Duration.ofMinutes(1));
+        mailSender.send(createMessage(mailSender, "john.doe@example.com"));
+
+        mailSender.destroy();
+
+        assertThat(mailSender.getIdleConnectionCount()).isZero();
+    }
+
+    private CountingMailSender createMailSender(Duration idleTimeout) {
+        CountingMailSender mailSender = new CountingMailSender(idleTimeout);
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        return mailSender;
+    }
+
+    static MimeMessage createMessage(PooledJavaMailSender mailSender, String to) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        message.setTo(to);
+        message.setFrom("myskool@localhost");
+        message.setSubject("testSubject");
+        message.setText("testContent", false);
+        return mimeMessage;
+    }
+
+    private static class CountingMailSender extends PooledJavaMailSender {
+
+        private int connections;
+
+        CountingMailSender(Duration idleTimeout) {
+            super(2, idleTimeout);
+        }
+
+        @Override
+        protected Transport connectTransport() throws MessagingException {
+            connections++;
+            return super.connectTransport();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.myskool.config.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.myskool.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link MetricSeriesEndpoint} class.
+ */
+class MetricSeriesEndpointTest {
+
+    @Test
+    void shouldCountSeriesByMeterName() {
+        MetricsPolicyMeterFilter filter = new MetricsPolicyMeterFilter(new ApplicationProperties().getMetrics());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(filter);
+        meterRegistry.counter("myskool.counter", "tag", "a");
+        meterRegistry.counter("myskool.counter", "tag", "b");
+        meterRegistry.timer("myskool.method");
+
+        MetricSeriesEndpoint.SeriesReport report = new MetricSeriesEndpoint(meterRegistry, filter).series();
+
+        // A timer without histogram publishes its count, total time and max
+        assertThat(report.getMeters()).containsExactly(entry("myskool.method", 3), entry("myskool.counter", 2));
+        assertThat(report.getTotal()).isEqualTo(5);
+        assertThat(report.getCappedTags()).isEmpty();
+    }
+}
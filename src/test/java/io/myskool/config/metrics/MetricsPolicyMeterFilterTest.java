@@ -0,0 +1,87 @@
+package io.myskool.config.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.myskool.config.ApplicationProperties;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link MetricsPolicyMeterFilter} class.
+ */
+class MetricsPolicyMeterFilterTest {
+
+    private MetricsPolicyMeterFilter filter;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties.Metrics properties = new ApplicationProperties().getMetrics();
+        properties.setMaxTagValues(2);
+        properties.setMaxTagValuesByMeter(Map.of("myskool.method", 1));
+        filter = new MetricsPolicyMeterFilter(properties);
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.config().meterFilter(filter);
+    }
+
+    @Test
+    void shouldPublishHistogramOnlyForAllowedMeters() {
+        Timer httpTimer = meterRegistry.timer("http.server.requests", "uri", "/api/users");
+        Timer methodTimer = meterRegistry.timer("myskool.method", "method", "getAllUsers");
+        httpTimer.record(Duration.ofMillis(10));
+        methodTimer.record(Duration.ofMillis(10));
+
+        assertThat(httpTimer.takeSnapshot().histogramCounts()).isNotEmpty();
+        assertThat(httpTimer.takeSnapshot().percentileValues()).hasSize(3);
+        assertThat(methodTimer.takeSnapshot().histogramCounts()).isEmpty();
+        assertThat(methodTimer.takeSnapshot().percentileValues()).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceTagValuesAboveMax() {
+        for (String uri : new String[] { "/api/a", "/api/b", "/api/c", "/api/d", "/api/a" }) {
+            meterRegistry.counter("http.server.requests", "uri", uri, "status", "200").increment();
+        }
+
+        assertThat(meterRegistry.find("http.server.requests").counters()).hasSize(3);
+        assertThat(meterRegistry.get("http.server.requests").tag("uri", "/api/a").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("http.server.requests").tag("uri", MetricsPolicyMeterFilter.OTHER).counter().count()).isEqualTo(2);
+        assertThat(filter.getCappedTags()).containsExactly("http.server.requests.uri");
+    }
+
+    @Test
+    void shouldApplyTheMaxOfTheMeter() {
+        meterRegistry.timer("myskool.method", "class", "UserService", "method", "createUser").record(Duration.ofMillis(10));
+        meterRegistry.timer("myskool.method", "class", "UserService", "method", "updateUser").record(Duration.ofMillis(10));
+        meterRegistry.timer("myskool.method", "class", "UserResource", "method", "createUser").record(Duration.ofMillis(10));
+
+        assertThat(meterRegistry.find("myskool.method").timers()).hasSize(3);
+        assertThat(meterRegistry.get("myskool.method").tag("class", "UserService").tag("method", MetricsPolicyMeterFilter.OTHER).timer())
+            .isNotNull();
+        assertThat(meterRegistry.get("myskool.method").tag("class", MetricsPolicyMeterFilter.OTHER).tag("method", "createUser").timer())
+            .isNotNull();
+        assertThat(filter.getCappedTags()).containsExactlyInAnyOrder("myskool.method.class", "myskool.method.method");
+    }
+
+    @Test
+    void shouldNotCapTheMetersWithoutMax() {
+        ApplicationProperties.Metrics properties = new ApplicationProperties().getMetrics();
+        properties.setMaxTagValues(2);
+        MetricsPolicyMeterFilter unboundedFilter = new MetricsPolicyMeterFilter(properties);
+        MeterRegistry unboundedRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        unboundedRegistry.config().meterFilter(unboundedFilter);
+        for (int i = 0; i < 100; i++) {
+            unboundedRegistry.timer("myskool.method", "class", "UserService", "method", "method" + i).record(Duration.ofMillis(10));
+        }
+
+        assertThat(unboundedRegistry.find("myskool.method").timers()).hasSize(100);
+        assertThat(unboundedFilter.getCappedTags()).isEmpty();
+    }
+}
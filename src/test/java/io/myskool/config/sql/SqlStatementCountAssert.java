@@ -0,0 +1,40 @@
+package io.myskool.config.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Helper for integration tests asserting how many SQL statements an operation executes.
+ * <p>
+ * With {@code MockMvc}, requests are handled on the test thread, so the statements executed for an endpoint
+ * can be asserted with:
+ * <pre>
+ * assertSqlStatementCount(3, () -&gt; restUserMockMvc.perform(get("/api/admin/users")).andExpect(status().isOk()));
+ * </pre>
+ */
+public final class SqlStatementCountAssert {
+
+    private SqlStatementCountAssert() {}
+
+    /**
+     * Runs the given operation and asserts the number of SQL statements it executed on the current thread.
+     *
+     * @param expected the expected number of statements.
+     * @param operation the operation to run.
+     * @param <T> the type of the operation result.
+     * @return the operation result.
+     * @throws Exception if the operation failed.
+     */
+    public static <T> T assertSqlStatementCount(long expected, Callable<T> operation) throws Exception {
+        SqlStatementCounter.Counts counts = SqlStatementCounter.start();
+        T result;
+        try {
+            result = operation.call();
+        } finally {
+            SqlStatementCounter.stop(counts);
+        }
+        assertThat(counts.getStatements()).as("SQL statements executed").isEqualTo(expected);
+        return result;
+    }
+}
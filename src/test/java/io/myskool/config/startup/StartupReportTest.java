@@ -0,0 +1,40 @@
+package io.myskool.config.startup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * Unit tests for the {@link StartupReport} class.
+ */
+class StartupReportTest {
+
+    @Test
+    void shouldReportPhasesWithoutCountingNestedStepsTwice() throws Exception {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        StartupStep refresh = applicationStartup.start("spring.context.refresh");
+        StartupStep service = applicationStartup.start("spring.beans.instantiate").tag("beanName", "userService");
+        StartupStep repository = applicationStartup.start("spring.beans.instantiate").tag("beanName", "userRepository");
+        Thread.sleep(20);
+        repository.end();
+        service.end();
+        StartupStep mapper = applicationStartup.start("spring.beans.instantiate").tag("beanName", "userMapper");
+        mapper.end();
+        refresh.end();
+
+        StartupReport report = StartupReport.of(applicationStartup.getBufferedTimeline(), Duration.ofSeconds(3), 2);
+
+        assertThat(report.getUptimeMillis()).isEqualTo(3000);
+        assertThat(report.getPhases()).containsOnlyKeys("spring.context.refresh", "spring.beans.instantiate");
+        // The userRepository is nested in the userService
+        assertThat(report.getPhases().get("spring.beans.instantiate").getCount()).isEqualTo(2);
+        assertThat(report.getPhases().get("spring.beans.instantiate").getMillis()).isGreaterThanOrEqualTo(20);
+        // The userService took no time itself, as it only waited for the userRepository
+        assertThat(report.getSlowestBeans().keySet()).containsExactly("userRepository", "userService");
+        assertThat(report.getSlowestBeans().get("userRepository")).isGreaterThanOrEqualTo(20);
+        assertThat(report.getSlowestBeans().get("userService")).isLessThan(20);
+    }
+}
@@ -0,0 +1,48 @@
+package io.myskool.config.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.myskool.IntegrationTest;
+import io.myskool.repository.UserRepository;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the {@link WarmUpRunner}.
+ */
+@IntegrationTest
+class WarmUpRunnerIT {
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldRunEachStepAndReportItsTime() throws Exception {
+        long users = userRepository.count();
+        long validations = meterRegistry.get("myskool.jwt.validation").timers().stream().mapToLong(Timer::count).sum();
+
+        Map<String, Duration> report = warmUpRunner.warmUp();
+
+        assertThat(report).containsOnlyKeys("hikari", "jwt", "serialization", "repositories");
+        assertThat(meterRegistry.get("myskool.warmup").tag("step", "jwt").timer().count()).isPositive();
+        assertThat(meterRegistry.get("myskool.jwt.validation").timers().stream().mapToLong(Timer::count).sum()).isEqualTo(validations);
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        assertThat(pool.getHikariPoolMXBean().getTotalConnections()).isGreaterThanOrEqualTo(pool.getMinimumIdle());
+        assertThat(userRepository.count()).isEqualTo(users);
+    }
+}
@@ -4,9 +4,15 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.myskool.IntegrationTest;
+import io.myskool.config.ApplicationProperties;
 import io.myskool.config.Constants;
+import io.myskool.domain.MailOutboxMessage;
 import io.myskool.domain.User;
+import io.myskool.domain.enumeration.MailOutboxStatus;
+import io.myskool.repository.MailOutboxMessageRepository;
+import io.myskool.repository.UserRepository;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -14,32 +20,47 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.mail.Multipart;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
+import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
- * Integration tests for {@link MailService}.
+ * Integration tests for {@link MailService} and {@link MailOutboxDispatcher}.
  */
 @IntegrationTest
+@Transactional
 class MailServiceIT {
 
+    private static final int MAX_ATTEMPTS = 2;
+
     private static final String[] languages = {
         // jhipster-needle-i18n-language-constant - JHipster will add/remove languages in this array
     };
@@ -55,26 +76,72 @@ class MailServiceIT {
     @Autowired
     private SpringTemplateEngine templateEngine;
 
+    @Autowired
+    private ThymeleafProperties thymeleafProperties;
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private ThreadPoolTaskExecutor mailRenderExecutor;
+
+    @Autowired
+    private ThreadPoolTaskExecutor mailTransportExecutor;
+
     @Spy
     private JavaMailSenderImpl javaMailSender;
 
-    @Captor
-    private ArgumentCaptor<MimeMessage> messageCaptor;
+    private List<MimeMessage> sentMessages;
 
     private MailService mailService;
 
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine);
+        sentMessages = new CopyOnWriteArrayList<>();
+        doAnswer(
+                invocation -> {
+                    Object[] messages = invocation.getArguments();
+                    Arrays.stream(messages).map(MimeMessage.class::cast).forEach(sentMessages::add);
+                    return null;
+                }
+            )
+            .when(javaMailSender)
+            .send((MimeMessage[]) any());
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().getOutbox().setMaxAttempts(MAX_ATTEMPTS);
+        mailService = new MailService(mailOutboxMessageRepository);
+        mailOutboxDispatcher =
+            new MailOutboxDispatcher(
+                mailOutboxMessageRepository,
+                userRepository,
+                jHipsterProperties,
+                javaMailSender,
+                new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, thymeleafProperties),
+                transactionManager,
+                taskScheduler,
+                mailRenderExecutor,
+                mailTransportExecutor,
+                new SimpleMeterRegistry(),
+                applicationProperties
+            );
     }
 
     @Test
     void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = dispatchSingleMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -86,8 +153,7 @@ class MailServiceIT {
     @Test
     void testSendHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = dispatchSingleMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -99,8 +165,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = dispatchSingleMessage();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -116,8 +181,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = dispatchSingleMessage();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -132,13 +196,10 @@ class MailServiceIT {
 
     @Test
     void testSendEmailFromTemplate() throws Exception {
-        User user = new User();
-        user.setLogin("john");
-        user.setEmail("john.doe@example.com");
+        User user = createUser();
         user.setLangKey("en");
         mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = dispatchSingleMessage();
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -148,13 +209,9 @@ class MailServiceIT {
 
     @Test
     void testSendActivationEmail() throws Exception {
-        User user = new User();
-        user.setLangKey(Constants.DEFAULT_LANGUAGE);
-        user.setLogin("john");
-        user.setEmail("john.doe@example.com");
+        User user = createUser();
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = dispatchSingleMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -163,13 +220,9 @@ class MailServiceIT {
 
     @Test
     void testCreationEmail() throws Exception {
-        User user = new User();
-        user.setLangKey(Constants.DEFAULT_LANGUAGE);
-        user.setLogin("john");
-        user.setEmail("john.doe@example.com");
+        User user = createUser();
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = dispatchSingleMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -178,13 +231,9 @@ class MailServiceIT {
 
     @Test
     void testSendPasswordResetMail() throws Exception {
-        User user = new User();
-        user.setLangKey(Constants.DEFAULT_LANGUAGE);
-        user.setLogin("john");
-        user.setEmail("john.doe@example.com");
+        User user = createUser();
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = dispatchSingleMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -193,24 +242,162 @@ class MailServiceIT {
 
     @Test
     void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+        doThrow(new MailSendException("Connection refused")).when(javaMailSender).send((MimeMessage[]) any());
         try {
             mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+            mailOutboxDispatcher.dispatch();
         } catch (Exception e) {
             fail("Exception shouldn't have been thrown");
         }
+        MailOutboxMessage message = mailOutboxMessageRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(message.getAttempts()).isEqualTo(1);
+        assertThat(message.getNextAttemptDate()).isAfter(Instant.now());
+    }
+
+    @Test
+    void testEmailIsSentInTheTransactionOfTheCaller() {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        verify(javaMailSender, never()).send((MimeMessage[]) any());
+        assertThat(mailOutboxMessageRepository.countByStatus(MailOutboxStatus.PENDING)).isEqualTo(1);
+    }
+
+    @Test
+    void testDispatchSendsBatchOverOneConnection() throws Exception {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false);
+        assertThat(mailOutboxDispatcher.dispatch()).isEqualTo(2);
+        verify(javaMailSender).send((MimeMessage[]) any());
+        assertThat(sentMessages).hasSize(2);
+        assertThat(sentMessages.get(0).getAllRecipients()[0]).hasToString("john.doe@example.com");
+        assertThat(sentMessages.get(1).getAllRecipients()[0]).hasToString("jane.doe@example.com");
+        assertThat(mailOutboxMessageRepository.count()).isZero();
+        assertThat(mailOutboxDispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    void testDispatchRendersTemplateForEachRecipient() throws Exception {
+        User john = createUser();
+        User jane = new User();
+        jane.setLogin("jane");
+        jane.setPassword(RandomStringUtils.random(60));
+        jane.setEmail("jane.doe@example.com");
+        jane.setLangKey(Constants.DEFAULT_LANGUAGE);
+        userRepository.saveAndFlush(jane);
+        mailService.sendEmailFromTemplate(john, "mail/testEmail", "email.test.title");
+        mailService.sendEmailFromTemplate(jane, "mail/testEmail", "email.test.title");
+        mailOutboxDispatcher.dispatch();
+
+        assertThat(sentMessages).hasSize(2);
+        assertThat(sentMessages.get(0).getSubject()).isEqualTo("test title");
+        assertThat(sentMessages.get(0).getContent().toString()).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
+        assertThat(sentMessages.get(1).getSubject()).isEqualTo("test title");
+        assertThat(sentMessages.get(1).getContent().toString()).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, jane</html>\n");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testDispatchPendingRendersAndSendsOnTheMailExecutors() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(
+            status -> {
+                mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+                mailService.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false);
+            }
+        );
+        try {
+            mailOutboxDispatcher.dispatchPending();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (mailOutboxMessageRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(sentMessages).hasSize(2);
+            assertThat(mailOutboxMessageRepository.count()).isZero();
+        } finally {
+            mailOutboxMessageRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void testDispatchRetriesOnlyFailedMessages() throws Exception {
+        doAnswer(
+                invocation -> {
+                    Object[] messages = invocation.getArguments();
+                    throw new MailSendException(Collections.singletonMap(messages[1], new Exception("Mailbox unavailable")));
+                }
+            )
+            .when(javaMailSender)
+            .send((MimeMessage[]) any());
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false);
+        mailOutboxDispatcher.dispatch();
+
+        List<MailOutboxMessage> remaining = mailOutboxMessageRepository.findAll();
+        assertThat(remaining).hasSize(1);
+        assertThat(remaining.get(0).getRecipient()).isEqualTo("jane.doe@example.com");
+        assertThat(remaining.get(0).getLastError()).contains("Mailbox unavailable");
+    }
+
+    @Test
+    void testDispatchDoesNotAcknowledgeMessagesClaimedAgainAfterTheirLeaseExpired() throws Exception {
+        Instant otherLeaseEnd = Instant.now().plusSeconds(600).truncatedTo(ChronoUnit.MILLIS);
+        doAnswer(
+                invocation -> {
+                    // The lease expired while sending, and another dispatcher claimed the messages again
+                    mailOutboxMessageRepository.findAll().forEach(message -> message.setNextAttemptDate(otherLeaseEnd));
+                    Object[] messages = invocation.getArguments();
+                    throw new MailSendException(Collections.singletonMap(messages[1], new Exception("Mailbox unavailable")));
+                }
+            )
+            .when(javaMailSender)
+            .send((MimeMessage[]) any());
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false);
+        mailOutboxDispatcher.dispatch();
+
+        List<MailOutboxMessage> remaining = mailOutboxMessageRepository.findAll();
+        assertThat(remaining).hasSize(2);
+        assertThat(remaining).extracting(MailOutboxMessage::getNextAttemptDate).containsOnly(otherLeaseEnd);
+        assertThat(remaining).extracting(MailOutboxMessage::getAttempts).containsOnly(0);
+        assertThat(remaining).extracting(MailOutboxMessage::getLastError).containsOnlyNulls();
+    }
+
+    @Test
+    void testDispatchDeadLettersAfterMaxAttempts() {
+        doThrow(new MailSendException("Connection refused")).when(javaMailSender).send((MimeMessage[]) any());
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            mailOutboxMessageRepository.findAll().forEach(message -> message.setNextAttemptDate(Instant.now()));
+            mailOutboxDispatcher.dispatch();
+        }
+
+        MailOutboxMessage message = mailOutboxMessageRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.DEAD);
+        assertThat(message.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(mailOutboxDispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    void testDispatchDeadLettersTemplateEmailOfDeletedUser() {
+        User user = createUser();
+        mailService.sendActivationEmail(user);
+        userRepository.delete(user);
+        userRepository.flush();
+        mailOutboxDispatcher.dispatch();
+
+        verify(javaMailSender, never()).send((MimeMessage[]) any());
+        assertThat(mailOutboxMessageRepository.findAll().get(0).getStatus()).isEqualTo(MailOutboxStatus.DEAD);
     }
 
     @Test
     void testSendLocalizedEmailForAllSupportedLanguages() throws Exception {
-        User user = new User();
-        user.setLogin("john");
-        user.setEmail("john.doe@example.com");
+        User user = createUser();
         for (String langKey : languages) {
             user.setLangKey(langKey);
+            userRepository.saveAndFlush(user);
+            sentMessages.clear();
             mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-            verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-            MimeMessage message = messageCaptor.getValue();
+            MimeMessage message = dispatchSingleMessage();
 
             String propertyFilePath = "i18n/messages_" + getJavaLocale(langKey) + ".properties";
             URL resource = this.getClass().getClassLoader().getResource(propertyFilePath);
@@ -225,6 +412,21 @@ class MailServiceIT {
         }
     }
 
+    private User createUser() {
+        User user = new User();
+        user.setLogin("john");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setEmail("john.doe@example.com");
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        return userRepository.saveAndFlush(user);
+    }
+
+    private MimeMessage dispatchSingleMessage() {
+        mailOutboxDispatcher.dispatch();
+        assertThat(sentMessages).hasSize(1);
+        return sentMessages.get(0);
+    }
+
     /**
      * Convert a lang key to the Java locale.
      */
@@ -0,0 +1,103 @@
+package io.myskool.service;
+
+import io.myskool.domain.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmark of the email rendering throughput of each template, comparing the {@link MailTemplateRenderer} batch API
+ * with rendering each recipient on its own as the {@link MailService} used to.
+ * <p>
+ * Run with {@code ./mvnw -Pdev,benchmark verify -DskipTests -Dbenchmark.include=MailTemplateRenderer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateRendererBenchmark {
+
+    private static final int RECIPIENTS = 100;
+
+    @Param({ "activationEmail", "creationEmail", "passwordResetEmail" })
+    private String template;
+
+    private String templateName;
+
+    private String titleKey;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private SpringTemplateEngine templateEngine;
+
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        templateName = "mail/" + template;
+        titleKey = "passwordResetEmail".equals(template) ? "email.reset.title" : "email.activation.title";
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        mailTemplateRenderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, new ThymeleafProperties());
+        users = new ArrayList<>(RECIPIENTS);
+        for (int i = 0; i < RECIPIENTS; i++) {
+            User user = new User();
+            user.setLogin("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setLangKey("en");
+            user.setActivationKey("activation" + i);
+            user.setResetKey("reset" + i);
+            users.add(user);
+        }
+    }
+
+    /**
+     * Renders the template for each recipient with its own locale, context and subject lookup.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECIPIENTS)
+    public void renderOneByOne(Blackhole blackhole) {
+        for (User user : users) {
+            Locale locale = Locale.forLanguageTag(user.getLangKey());
+            Context context = new Context(locale);
+            context.setVariable("user", user);
+            context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+            blackhole.consume(templateEngine.process(templateName, context));
+            blackhole.consume(messageSource.getMessage(titleKey, null, locale));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECIPIENTS)
+    public List<MailTemplateRenderer.RenderedMail> renderBatch() {
+        return mailTemplateRenderer.render(users, templateName, titleKey);
+    }
+}
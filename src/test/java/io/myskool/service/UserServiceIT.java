@@ -1,13 +1,18 @@
 package io.myskool.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 import io.myskool.IntegrationTest;
 import io.myskool.config.Constants;
 import io.myskool.domain.User;
+import io.myskool.repository.MailOutboxMessageRepository;
 import io.myskool.repository.UserRepository;
 import io.myskool.service.dto.AdminUserDTO;
+import io.myskool.service.dto.UserOperationDTO;
+import io.myskool.service.dto.UserOperationResultDTO;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -18,11 +23,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -50,12 +59,18 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
+    @SpyBean
+    private MailService mailService;
+
     private User user;
 
     @BeforeEach
@@ -182,4 +197,57 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatBatchFailingAtCommitSkipsTheNextOperations() {
+        // The transactions creating batch-failing fail at commit, with the chunk and when executed alone
+        doAnswer(
+                invocation -> {
+                    TransactionSynchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public void beforeCommit(boolean readOnly) {
+                                throw new IllegalStateException("Could not commit the transaction");
+                            }
+                        }
+                    );
+                    return null;
+                }
+            )
+            .when(mailService)
+            .sendCreationEmail(argThat(createdUser -> "batch-failing".equals(createdUser.getLogin())));
+        List<UserOperationDTO> operations = List.of(
+            new UserOperationDTO(UserOperationDTO.Type.CREATE, batchUser("batch-first"), null),
+            new UserOperationDTO(UserOperationDTO.Type.CREATE, batchUser("batch-failing"), null),
+            new UserOperationDTO(UserOperationDTO.Type.CREATE, batchUser("batch-second"), null)
+        );
+
+        try {
+            List<UserOperationResultDTO> results = userService.executeBatch(operations, false);
+
+            assertThat(results)
+                .extracting(UserOperationResultDTO::getStatus)
+                .containsExactly(
+                    UserOperationResultDTO.Status.CREATED,
+                    UserOperationResultDTO.Status.FAILED,
+                    UserOperationResultDTO.Status.SKIPPED
+                );
+            assertThat(userRepository.findOneByLogin("batch-first")).isPresent();
+            assertThat(userRepository.findOneByLogin("batch-failing")).isEmpty();
+            assertThat(userRepository.findOneByLogin("batch-second")).isEmpty();
+        } finally {
+            userRepository.findAll().stream().filter(batchUser -> batchUser.getLogin().startsWith("batch-")).forEach(userRepository::delete);
+            mailOutboxMessageRepository.deleteAll();
+        }
+    }
+
+    private static AdminUserDTO batchUser(String login) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(login);
+        userDTO.setEmail(login + "@localhost");
+        userDTO.setFirstName(DEFAULT_FIRSTNAME);
+        userDTO.setLangKey(DEFAULT_LANGKEY);
+        return userDTO;
+    }
 }
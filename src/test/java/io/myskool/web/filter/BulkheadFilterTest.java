@@ -0,0 +1,89 @@
+package io.myskool.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the {@link BulkheadFilter} class.
+ */
+class BulkheadFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter =
+            new BulkheadFilter(meterRegistry, 2, Duration.ZERO)
+                .addGroup("admin", List.of("/api/admin/**"), 1, Duration.ZERO)
+                .addGroup("account", List.of("/api/account/**", "/api/register"), 1, Duration.ofMillis(10));
+    }
+
+    @Test
+    void shouldSetTheGroupOfTheRequest() throws Exception {
+        List<Object> groups = new ArrayList<>();
+        FilterChain chain = (request, response) -> groups.add(request.getAttribute(BulkheadFilter.GROUP_ATTRIBUTE));
+
+        filter.doFilter(request("/api/admin/users"), new MockHttpServletResponse(), chain);
+        filter.doFilter(request("/api/register"), new MockHttpServletResponse(), chain);
+        filter.doFilter(request("/api/users"), new MockHttpServletResponse(), chain);
+
+        assertThat(groups).containsExactly("admin", "account", BulkheadFilter.DEFAULT_GROUP);
+        assertThat(meterRegistry.get("myskool.http.bulkhead.available").tag("group", "admin").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectTheRequestsOfAFullGroupOnly() throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        FilterChain nested = (request, response) -> {
+            MockHttpServletResponse adminResponse = new MockHttpServletResponse();
+            filter.doFilter(request("/api/admin/users"), adminResponse, (nestedRequest, nestedResponse) -> {});
+            statuses.add(adminResponse.getStatus());
+            MockHttpServletResponse accountResponse = new MockHttpServletResponse();
+            filter.doFilter(request("/api/account"), accountResponse, (nestedRequest, nestedResponse) -> {});
+            statuses.add(accountResponse.getStatus());
+            assertThat(adminResponse.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        };
+
+        filter.doFilter(request("/api/admin/batch"), new MockHttpServletResponse(), nested);
+
+        assertThat(statuses).containsExactly(HttpServletResponse.SC_SERVICE_UNAVAILABLE, HttpServletResponse.SC_OK);
+        assertThat(meterRegistry.get("myskool.http.bulkhead.rejected").tag("group", "admin").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("myskool.http.bulkhead.available").tag("group", "admin").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectAfterWaitingForAPermit() throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        FilterChain nested = (request, response) -> {
+            MockHttpServletResponse accountResponse = new MockHttpServletResponse();
+            filter.doFilter(request("/api/account"), accountResponse, (nestedRequest, nestedResponse) -> {});
+            statuses.add(accountResponse.getStatus());
+        };
+
+        filter.doFilter(request("/api/register"), new MockHttpServletResponse(), nested);
+
+        assertThat(statuses).containsExactly(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(meterRegistry.get("myskool.http.bulkhead.rejected").tag("group", "account").counter().count()).isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
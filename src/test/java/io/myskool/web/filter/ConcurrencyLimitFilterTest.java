@@ -0,0 +1,127 @@
+package io.myskool.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the {@link ConcurrencyLimitFilter} class.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private GradientConcurrencyLimit adminLimit;
+
+    private GradientConcurrencyLimit defaultLimit;
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        adminLimit = new GradientConcurrencyLimit(1, 1, 1, 0.2, 1.5, 100);
+        defaultLimit = new GradientConcurrencyLimit(10, 10, 10, 0.2, 1.5, 100);
+        filter = new ConcurrencyLimitFilter(meterRegistry, defaultLimit).addGroup("admin", List.of("/api/admin/**"), adminLimit);
+    }
+
+    @Test
+    void shouldPassRequestsBelowTheLimit() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(
+            request("/api/admin/users"),
+            response,
+            (request, chainResponse) -> inFlight.set(adminLimit.getInFlight())
+        );
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(inFlight.get()).isEqualTo(1);
+        assertThat(adminLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldShedRequestsAboveTheLimitOfTheirGroup() throws Exception {
+        assertThat(adminLimit.tryAcquire()).isTrue();
+        AtomicInteger calls = new AtomicInteger();
+        FilterChain chain = (request, response) -> calls.incrementAndGet();
+
+        MockHttpServletResponse adminResponse = new MockHttpServletResponse();
+        filter.doFilter(request("/api/admin/users"), adminResponse, chain);
+        MockHttpServletResponse otherResponse = new MockHttpServletResponse();
+        filter.doFilter(request("/api/account"), otherResponse, chain);
+
+        assertThat(adminResponse.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(adminResponse.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(otherResponse.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("myskool.http.concurrency.dropped").tag("group", "admin").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("myskool.http.concurrency.dropped").tag("group", "default").counter().count()).isZero();
+        assertThat(meterRegistry.get("myskool.http.concurrency.in.flight").tag("group", "admin").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("myskool.http.concurrency.limit").tag("group", "default").gauge().value()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldReleaseWhenTheRequestFails() {
+        FilterChain chain = (request, response) -> {
+            throw new IllegalStateException("Failed");
+        };
+
+        try {
+            filter.doFilter(request("/api/admin/users"), new MockHttpServletResponse(), chain);
+        } catch (Exception e) {
+            assertThat(e).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(adminLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldNotSampleTheRequestsRejectedByTheBulkhead() throws Exception {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 1, 100, 1.0, 1.5, 100);
+        ConcurrencyLimitFilter limitFilter = new ConcurrencyLimitFilter(meterRegistry, limit);
+        BulkheadFilter fullBulkhead = new BulkheadFilter(meterRegistry, 0, Duration.ZERO);
+        BulkheadFilter openBulkhead = new BulkheadFilter(new SimpleMeterRegistry(), 1, Duration.ZERO);
+        for (int i = 0; i < 19; i++) {
+            limit.tryAcquire();
+        }
+
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+        limitFilter.doFilter(
+            request("/api/users"),
+            rejectedResponse,
+            (request, response) -> fullBulkhead.doFilter(request, response, (nestedRequest, nestedResponse) -> {})
+        );
+
+        assertThat(rejectedResponse.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(limit.getInFlight()).isEqualTo(19);
+        assertThat(limit.getLimit()).isEqualTo(20);
+
+        limitFilter.doFilter(
+            request("/api/users"),
+            new MockHttpServletResponse(),
+            (request, response) -> openBulkhead.doFilter(request, response, (nestedRequest, nestedResponse) -> {})
+        );
+
+        assertThat(limit.getInFlight()).isEqualTo(19);
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
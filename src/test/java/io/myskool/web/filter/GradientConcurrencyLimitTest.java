@@ -0,0 +1,93 @@
+package io.myskool.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link GradientConcurrencyLimit} class.
+ */
+class GradientConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void shouldRejectRequestsAboveTheLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 0.2, 1.5, 100);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+
+        limit.release(FAST);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldNotUpdateTheLimitWhenReleasedWithoutSample() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 1, 100, 1.0, 1.5, 100);
+
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+        }
+        for (int i = 0; i < 10; i++) {
+            limit.releaseWithoutSample();
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldGrowWhileTheLatencyIsStable() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 1, 100, 0.2, 1.5, 100);
+
+        for (int i = 0; i < 100; i++) {
+            atConcurrency(limit, limit.getLimit(), FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldShrinkWhenTheLatencyRises() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(50, 5, 100, 0.2, 1.5, 100);
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(FAST);
+        }
+
+        atConcurrency(limit, limit.getLimit(), SLOW);
+
+        assertThat(limit.getLimit()).isLessThan(25);
+    }
+
+    @Test
+    void shouldNotGrowWhileMostlyIdle() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 1, 100, 0.2, 1.5, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    /**
+     * Start as many requests as the concurrency, then end one with the latency, the others ending at once.
+     */
+    private static void atConcurrency(GradientConcurrencyLimit limit, int concurrency, long rttNanos) {
+        for (int i = 0; i < concurrency; i++) {
+            limit.tryAcquire();
+        }
+        limit.release(rttNanos);
+        while (limit.getInFlight() > 0) {
+            limit.release(rttNanos);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package io.myskool.web.rest;
 
+import static io.myskool.config.sql.SqlStatementCountAssert.assertSqlStatementCount;
 import static io.myskool.web.rest.AccountResourceIT.TEST_USER_LOGIN;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.myskool.IntegrationTest;
 import io.myskool.config.Constants;
 import io.myskool.domain.User;
@@ -27,6 +31,8 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -95,8 +101,7 @@ class AccountResourceIT {
         user.setAuthorities(authorities);
         userService.createUser(user);
 
-        restAccountMockMvc
-            .perform(get("/api/account").accept(MediaType.APPLICATION_JSON))
+        assertSqlStatementCount(1, () -> restAccountMockMvc.perform(get("/api/account").accept(MediaType.APPLICATION_JSON)))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.login").value(TEST_USER_LOGIN))
@@ -108,6 +113,30 @@ class AccountResourceIT {
             .andExpect(jsonPath("$.authorities").value(AuthoritiesConstants.ADMIN));
     }
 
+    @Test
+    @Transactional
+    @WithMockUser("account-as-cbor")
+    void testGetExistingAccountAsCbor() throws Exception {
+        User user = new User();
+        user.setLogin("account-as-cbor");
+        user.setEmail("account-as-cbor@example.com");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+
+        MvcResult result = restAccountMockMvc
+            .perform(get("/api/account").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn();
+
+        AdminUserDTO account = new ObjectMapper(new CBORFactory())
+            .registerModule(new JavaTimeModule())
+            .readValue(result.getResponse().getContentAsByteArray(), AdminUserDTO.class);
+        assertThat(account.getLogin()).isEqualTo("account-as-cbor");
+        assertThat(account.getEmail()).isEqualTo("account-as-cbor@example.com");
+    }
+
     @Test
     void testGetUnknownAccount() throws Exception {
         restAccountMockMvc
@@ -438,6 +467,53 @@ class AccountResourceIT {
         assertThat(updatedUser.getAuthorities()).isEmpty();
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithMockUser("save-account-count")
+    void testSaveAccountStatementCount() throws Exception {
+        User user = new User();
+        user.setLogin("save-account-count");
+        user.setEmail("save-account-count@example.com");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin("save-account-count");
+        userDTO.setFirstName("firstname");
+        userDTO.setLastName("lastname");
+        userDTO.setEmail("Save-Account-Count@example.com");
+        userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
+
+        try {
+            // The current user is selected once, by the service, and updated: its email does not change so is not checked
+            assertSqlStatementCount(
+                2,
+                () ->
+                    restAccountMockMvc
+                        .perform(
+                            post("/api/account").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(userDTO))
+                        )
+                        .andExpect(status().isOk())
+            );
+
+            userDTO.setEmail("save-account-count-new@example.com");
+
+            // Plus the select of a user with the new email
+            assertSqlStatementCount(
+                3,
+                () ->
+                    restAccountMockMvc
+                        .perform(
+                            post("/api/account").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(userDTO))
+                        )
+                        .andExpect(status().isOk())
+            );
+        } finally {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
     @Test
     @Transactional
     @WithMockUser("save-invalid-email")
@@ -580,6 +656,35 @@ class AccountResourceIT {
         assertThat(passwordEncoder.matches("new password", updatedUser.getPassword())).isTrue();
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithMockUser("change-password-count")
+    void testChangePasswordStatementCount() throws Exception {
+        User user = new User();
+        String currentPassword = RandomStringUtils.random(60);
+        user.setPassword(passwordEncoder.encode(currentPassword));
+        user.setLogin("change-password-count");
+        user.setEmail("change-password-count@example.com");
+        userRepository.saveAndFlush(user);
+
+        try {
+            // The current user is selected by the service only, then updated
+            assertSqlStatementCount(
+                2,
+                () ->
+                    restAccountMockMvc
+                        .perform(
+                            post("/api/account/change-password")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(new PasswordChangeDTO(currentPassword, "new password")))
+                        )
+                        .andExpect(status().isOk())
+            );
+        } finally {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
     @Test
     @Transactional
     @WithMockUser("change-password-too-small")
@@ -1,10 +1,14 @@
 package io.myskool.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import io.myskool.IntegrationTest;
 import io.myskool.domain.User;
 import io.myskool.repository.UserRepository;
@@ -15,9 +19,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -30,6 +36,8 @@ class PublicUserResourceIT {
 
     private static final String DEFAULT_LOGIN = "johndoe";
 
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
     @Autowired
     private UserRepository userRepository;
 
@@ -72,6 +80,34 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").doesNotExist());
     }
 
+    @Test
+    @Transactional
+    void getAllPublicUsersAsSmile() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        MvcResult result = restUserMockMvc
+            .perform(get("/api/users?sort=id,desc").accept(SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(SMILE))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+
+        JsonNode users = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(users.findValuesAsText("login")).contains(DEFAULT_LOGIN);
+        assertThat(users.findValues("email")).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void getAllPublicUsersAsJsonByDefault() throws Exception {
+        restUserMockMvc
+            .perform(get("/api/users?sort=id,desc").accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     @Transactional
     void getAllAuthorities() throws Exception {
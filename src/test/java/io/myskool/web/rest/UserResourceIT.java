@@ -1,20 +1,28 @@
 package io.myskool.web.rest;
 
+import static io.myskool.config.sql.SqlStatementCountAssert.assertSqlStatementCount;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import io.myskool.IntegrationTest;
 import io.myskool.domain.Authority;
 import io.myskool.domain.User;
+import io.myskool.repository.MailOutboxMessageRepository;
 import io.myskool.repository.UserRepository;
 import io.myskool.security.AuthoritiesConstants;
 import io.myskool.service.dto.AdminUserDTO;
 import io.myskool.service.dto.UserDTO;
+import io.myskool.service.dto.UserOperationDTO;
 import io.myskool.service.mapper.UserMapper;
 import io.myskool.web.rest.vm.ManagedUserVM;
+import io.myskool.web.rest.vm.UserBatchVM;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
@@ -25,9 +33,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -73,6 +84,9 @@ class UserResourceIT {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
     @Autowired
     private MockMvc restUserMockMvc;
 
@@ -202,12 +216,19 @@ class UserResourceIT {
         managedUserVM.setLangKey(DEFAULT_LANGKEY);
         managedUserVM.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
 
-        // Create the User
-        restUserMockMvc
-            .perform(
-                post("/api/admin/users").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(managedUserVM))
-            )
-            .andExpect(status().isBadRequest());
+        // Create the User, the login and the email being checked with a single query
+        assertSqlStatementCount(
+            1,
+            () ->
+                restUserMockMvc
+                    .perform(
+                        post("/api/admin/users")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(TestUtil.convertObjectToJsonBytes(managedUserVM))
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("error.userexists"))
+        );
 
         // Validate the User in the database
         assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate));
@@ -261,6 +282,98 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithFields() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        em.clear();
+
+        // A single select of the two columns, the page being smaller than its size
+        assertSqlStatementCount(
+            1,
+            () ->
+                restUserMockMvc
+                    .perform(get("/api/admin/users?sort=id,desc&fields=login,firstName").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(header().exists("X-Total-Count"))
+                    .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+                    .andExpect(jsonPath("$.[*].firstName").value(hasItem(DEFAULT_FIRSTNAME)))
+                    .andExpect(jsonPath("$.[0].*", hasSize(2)))
+                    .andExpect(jsonPath("$.[*].id").doesNotExist())
+                    .andExpect(jsonPath("$.[*].email").doesNotExist())
+                    .andExpect(jsonPath("$.[*].authorities").doesNotExist())
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersWithAuthoritiesField() throws Exception {
+        // Initialize the database
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user.setAuthorities(Collections.singleton(authority));
+        userRepository.saveAndFlush(user);
+        em.clear();
+
+        // One select for the page, one for the authorities of all the users in the page
+        assertSqlStatementCount(
+            2,
+            () ->
+                restUserMockMvc
+                    .perform(get("/api/admin/users?sort=id,desc&fields=login,authorities").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.[?(@.login == 'admin')].authorities[*]").value(hasItem(AuthoritiesConstants.ADMIN)))
+                    .andExpect(jsonPath("$.[?(@.login == '" + DEFAULT_LOGIN + "')].authorities[*]").value(hasItem(AuthoritiesConstants.USER)))
+                    .andExpect(jsonPath("$.[*].id").doesNotExist())
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersWithNotAllowedFields() throws Exception {
+        restUserMockMvc.perform(get("/api/admin/users?fields=login,password").accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+        restUserMockMvc.perform(get("/api/admin/users?fields=resetKey").accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+        restUserMockMvc.perform(get("/api/admin/users?fields=").accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+        restUserMockMvc
+            .perform(get("/api/admin/users?fields=login&sort=password,desc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersAsCbor() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        MvcResult result = restUserMockMvc
+            .perform(get("/api/admin/users?sort=id,desc").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+
+        JsonNode users = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(users.findValuesAsText("login")).contains(DEFAULT_LOGIN);
+        assertThat(users.findValuesAsText("email")).contains(DEFAULT_EMAIL);
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersFetchesAuthoritiesInOneBatch() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        em.clear();
+
+        // One select for the page, one batched select for the authorities of all the users in the page
+        assertSqlStatementCount(
+            2,
+            () -> restUserMockMvc.perform(get("/api/admin/users?sort=id,desc").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+        );
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
@@ -284,6 +397,16 @@ class UserResourceIT {
         assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(user.getLogin())).isNotNull();
     }
 
+    @Test
+    @Transactional
+    void getUserFetchesAuthoritiesWithTheUser() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        em.clear();
+
+        assertSqlStatementCount(1, () -> restUserMockMvc.perform(get("/api/admin/users/{login}", user.getLogin())).andExpect(status().isOk()));
+    }
+
     @Test
     @Transactional
     void getNonExistingUser() throws Exception {
@@ -487,6 +610,125 @@ class UserResourceIT {
         assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeDelete - 1));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void executeBatchContinuingOnError() throws Exception {
+        UserBatchVM batchVM = new UserBatchVM();
+        batchVM.setContinueOnError(true);
+        batchVM.setOperations(
+            Arrays.asList(
+                createOperation("batch-first"),
+                createOperation("admin"),
+                createOperation("batch-second"),
+                new UserOperationDTO(UserOperationDTO.Type.DELETE, null, "batch-missing")
+            )
+        );
+
+        try {
+            restUserMockMvc
+                .perform(post("/api/admin/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batchVM)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].index").value(hasItems(0, 1, 2, 3)))
+                .andExpect(jsonPath("$.[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.[1].login").value("admin"))
+                .andExpect(jsonPath("$.[1].error").value("Login name already used!"))
+                .andExpect(jsonPath("$.[2].status").value("CREATED"))
+                .andExpect(jsonPath("$.[3].status").value("NOT_FOUND"));
+
+            assertThat(userRepository.findOneByLogin("batch-first")).isPresent();
+            assertThat(userRepository.findOneByLogin("batch-second")).isPresent();
+        } finally {
+            deleteBatchUsers();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void executeBatchFailingFast() throws Exception {
+        UserBatchVM batchVM = new UserBatchVM();
+        batchVM.setOperations(Arrays.asList(createOperation("batch-first"), createOperation("admin"), createOperation("batch-second")));
+
+        try {
+            restUserMockMvc
+                .perform(post("/api/admin/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batchVM)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.[2].status").value("SKIPPED"))
+                .andExpect(jsonPath("$.[2].login").value("batch-second"));
+
+            assertThat(userRepository.findOneByLogin("batch-first")).isPresent();
+            assertThat(userRepository.findOneByLogin("batch-second")).isEmpty();
+        } finally {
+            deleteBatchUsers();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void executeBatchEvictsTheCachesAfterCommit() throws Exception {
+        UserBatchVM createVM = new UserBatchVM();
+        createVM.setOperations(Arrays.asList(createOperation("batch-first"), createOperation("batch-second")));
+
+        try {
+            restUserMockMvc
+                .perform(post("/api/admin/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(createVM)))
+                .andExpect(status().isOk());
+            User first = userRepository.findOneWithAuthoritiesByLogin("batch-first").orElseThrow();
+            cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).put("batch-first", first);
+            cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).put("batch-second", first);
+
+            AdminUserDTO updatedUser = new AdminUserDTO(first);
+            updatedUser.setFirstName(UPDATED_FIRSTNAME);
+            UserBatchVM changeVM = new UserBatchVM();
+            changeVM.setOperations(
+                Arrays.asList(
+                    new UserOperationDTO(UserOperationDTO.Type.UPDATE, updatedUser, null),
+                    new UserOperationDTO(UserOperationDTO.Type.DELETE, null, "batch-second")
+                )
+            );
+            restUserMockMvc
+                .perform(post("/api/admin/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(changeVM)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.[1].status").value("DELETED"));
+
+            assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get("batch-first")).isNull();
+            assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get("batch-second")).isNull();
+            assertThat(userRepository.findOneByLogin("batch-first")).get().extracting(User::getFirstName).isEqualTo(UPDATED_FIRSTNAME);
+            assertThat(userRepository.findOneByLogin("batch-second")).isEmpty();
+        } finally {
+            deleteBatchUsers();
+        }
+    }
+
+    @Test
+    @Transactional
+    void executeBatchWithIncompleteOperation() throws Exception {
+        UserBatchVM batchVM = new UserBatchVM();
+        batchVM.setOperations(Collections.singletonList(new UserOperationDTO(UserOperationDTO.Type.UPDATE, new AdminUserDTO(), null)));
+
+        restUserMockMvc
+            .perform(post("/api/admin/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batchVM)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static UserOperationDTO createOperation(String login) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(login);
+        userDTO.setEmail(login + "@localhost");
+        userDTO.setFirstName(DEFAULT_FIRSTNAME);
+        userDTO.setLangKey(DEFAULT_LANGKEY);
+        userDTO.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
+        return new UserOperationDTO(UserOperationDTO.Type.CREATE, userDTO, null);
+    }
+
+    private void deleteBatchUsers() {
+        userRepository.findAll().stream().filter(batchUser -> batchUser.getLogin().startsWith("batch-")).forEach(userRepository::delete);
+        mailOutboxMessageRepository.deleteAll();
+    }
+
     @Test
     void testUserEquals() throws Exception {
         TestUtil.equalsVerifier(User.class);
@@ -0,0 +1,112 @@
+package io.myskool.web.rest.errors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.myskool.config.errors.BusinessExceptions;
+import io.myskool.service.EmailAlreadyUsedException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.zalando.problem.Problem;
+import org.zalando.problem.ProblemModule;
+import org.zalando.problem.ThrowableProblem;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * Benchmark of the error path of an expected business failure under concurrent requests: the service exception is
+ * thrown from a call stack as deep as the one of a request going through the servlet filters and Spring MVC, then
+ * translated by the {@link ExceptionTranslator} and serialized, with and without capturing its stack trace.
+ * <p>
+ * The translation returns the body prebuilt for the failure, with the path of the request, and is compared with the
+ * baseline creating the problem response then post-processing it on each request.
+ * <p>
+ * Run with {@code ./mvnw -Pdev,benchmark verify -DskipTests -Dbenchmark.include=ExceptionTranslator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ExceptionTranslatorBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean stackTraces;
+
+    @Param("150")
+    private int depth;
+
+    private ExceptionTranslator exceptionTranslator;
+
+    private ObjectMapper objectMapper;
+
+    private ThrowableProblem baselineProblem;
+
+    private HttpHeaders baselineHeaders;
+
+    @Setup
+    public void setup() {
+        // The warning logged for each failure would measure the console instead
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.zalando.problem")).setLevel(ch.qos.logback.classic.Level.ERROR);
+        BusinessExceptions.setStackTraceEnabled(stackTraces);
+        exceptionTranslator = new ExceptionTranslator(new MockEnvironment(), "myskoolApp");
+        objectMapper = new ObjectMapper().registerModule(new ProblemModule());
+        BadRequestAlertException problem = new io.myskool.web.rest.errors.EmailAlreadyUsedException();
+        baselineProblem = problem;
+        baselineHeaders =
+            HeaderUtil.createFailureAlert("myskoolApp", false, problem.getEntityName(), problem.getErrorKey(), problem.getMessage());
+    }
+
+    @TearDown
+    public void tearDown() {
+        BusinessExceptions.setStackTraceEnabled(false);
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+
+        private ServletWebRequest webRequest;
+
+        @Setup
+        public void setup() {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/register");
+            request.addHeader("Accept", "application/json");
+            webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+        }
+    }
+
+    @Benchmark
+    public byte[] emailAlreadyUsed(Request request) throws Exception {
+        try {
+            throwAt(depth);
+            throw new IllegalStateException();
+        } catch (EmailAlreadyUsedException e) {
+            ResponseEntity<Problem> response = exceptionTranslator.handleEmailAlreadyUsedException(e, request.webRequest);
+            return objectMapper.writeValueAsBytes(response.getBody());
+        }
+    }
+
+    @Benchmark
+    public byte[] emailAlreadyUsedBaseline(Request request) throws Exception {
+        try {
+            throwAt(depth);
+            throw new IllegalStateException();
+        } catch (EmailAlreadyUsedException e) {
+            ResponseEntity<Problem> response = exceptionTranslator.create(baselineProblem, request.webRequest, baselineHeaders);
+            return objectMapper.writeValueAsBytes(response.getBody());
+        }
+    }
+
+    private static void throwAt(int depth) {
+        if (depth == 0) {
+            throw new EmailAlreadyUsedException();
+        }
+        throwAt(depth - 1);
+    }
+}
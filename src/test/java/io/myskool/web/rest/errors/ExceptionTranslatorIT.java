@@ -3,6 +3,7 @@ package io.myskool.web.rest.errors;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -106,6 +107,31 @@ class ExceptionTranslatorIT {
             .andExpect(jsonPath("$.title").value("test response status"));
     }
 
+    @Test
+    void testLoginUniqueConstraintViolation() throws Exception {
+        mockMvc
+            .perform(post("/api/exception-translator-test/duplicate-login"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.type").value(ErrorConstants.LOGIN_ALREADY_USED_TYPE.toString()))
+            .andExpect(jsonPath("$.message").value("error.userexists"))
+            .andExpect(jsonPath("$.path").value("/api/exception-translator-test/duplicate-login"));
+    }
+
+    @Test
+    void testEmailUniqueConstraintViolation() throws Exception {
+        mockMvc
+            .perform(post("/api/exception-translator-test/duplicate-email"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(header().string("X-myskoolApp-error", "Email is already in use!"))
+            .andExpect(jsonPath("$.type").value(ErrorConstants.EMAIL_ALREADY_USED_TYPE.toString()))
+            .andExpect(jsonPath("$.title").value("Email is already in use!"))
+            .andExpect(jsonPath("$.message").value("error.emailexists"))
+            .andExpect(jsonPath("$.params").value("userManagement"))
+            .andExpect(jsonPath("$.path").value("/api/exception-translator-test/duplicate-email"));
+    }
+
     @Test
     void testInternalServerError() throws Exception {
         mockMvc
@@ -1,17 +1,27 @@
 package io.myskool.web.rest.errors;
 
+import io.myskool.domain.User;
+import io.myskool.repository.UserRepository;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/exception-translator-test")
 public class ExceptionTranslatorTestController {
 
+    private final UserRepository userRepository;
+
+    public ExceptionTranslatorTestController(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
     @GetMapping("/concurrency-failure")
     public void concurrencyFailure() {
         throw new ConcurrencyFailureException("test concurrency failure");
@@ -41,6 +51,29 @@ public class ExceptionTranslatorTestController {
         throw new TestResponseStatusException();
     }
 
+    @PostMapping("/duplicate-login")
+    @Transactional
+    public void duplicateLogin() {
+        userRepository.saveAndFlush(user("duplicate", "duplicate@localhost"));
+        userRepository.saveAndFlush(user("duplicate", "other@localhost"));
+    }
+
+    @PostMapping("/duplicate-email")
+    @Transactional
+    public void duplicateEmail() {
+        userRepository.saveAndFlush(user("duplicate", "duplicate@localhost"));
+        userRepository.saveAndFlush(user("other", "duplicate@localhost"));
+    }
+
+    private static User user(String login, String email) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(email);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        return user;
+    }
+
     @GetMapping("/internal-server-error")
     public void internalServerError() {
         throw new RuntimeException();
@@ -0,0 +1,61 @@
+/* Test bundle */
+export const value0 = "precompressed static asset number 0";
+export const value1 = "precompressed static asset number 1";
+export const value2 = "precompressed static asset number 2";
+export const value3 = "precompressed static asset number 3";
+export const value4 = "precompressed static asset number 4";
+export const value5 = "precompressed static asset number 5";
+export const value6 = "precompressed static asset number 6";
+export const value7 = "precompressed static asset number 7";
+export const value8 = "precompressed static asset number 8";
+export const value9 = "precompressed static asset number 9";
+export const value10 = "precompressed static asset number 10";
+export const value11 = "precompressed static asset number 11";
+export const value12 = "precompressed static asset number 12";
+export const value13 = "precompressed static asset number 13";
+export const value14 = "precompressed static asset number 14";
+export const value15 = "precompressed static asset number 15";
+export const value16 = "precompressed static asset number 16";
+export const value17 = "precompressed static asset number 17";
+export const value18 = "precompressed static asset number 18";
+export const value19 = "precompressed static asset number 19";
+export const value20 = "precompressed static asset number 20";
+export const value21 = "precompressed static asset number 21";
+export const value22 = "precompressed static asset number 22";
+export const value23 = "precompressed static asset number 23";
+export const value24 = "precompressed static asset number 24";
+export const value25 = "precompressed static asset number 25";
+export const value26 = "precompressed static asset number 26";
+export const value27 = "precompressed static asset number 27";
+export const value28 = "precompressed static asset number 28";
+export const value29 = "precompressed static asset number 29";
+export const value30 = "precompressed static asset number 30";
+export const value31 = "precompressed static asset number 31";
+export const value32 = "precompressed static asset number 32";
+export const value33 = "precompressed static asset number 33";
+export const value34 = "precompressed static asset number 34";
+export const value35 = "precompressed static asset number 35";
+export const value36 = "precompressed static asset number 36";
+export const value37 = "precompressed static asset number 37";
+export const value38 = "precompressed static asset number 38";
+export const value39 = "precompressed static asset number 39";
+export const value40 = "precompressed static asset number 40";
+export const value41 = "precompressed static asset number 41";
+export const value42 = "precompressed static asset number 42";
+export const value43 = "precompressed static asset number 43";
+export const value44 = "precompressed static asset number 44";
+export const value45 = "precompressed static asset number 45";
+export const value46 = "precompressed static asset number 46";
+export const value47 = "precompressed static asset number 47";
+export const value48 = "precompressed static asset number 48";
+export const value49 = "precompressed static asset number 49";
+export const value50 = "precompressed static asset number 50";
+export const value51 = "precompressed static asset number 51";
+export const value52 = "precompressed static asset number 52";
+export const value53 = "precompressed static asset number 53";
+export const value54 = "precompressed static asset number 54";
+export const value55 = "precompressed static asset number 55";
+export const value56 = "precompressed static asset number 56";
+export const value57 = "precompressed static asset number 57";
+export const value58 = "precompressed static asset number 58";
+export const value59 = "precompressed static asset number 59";
@@ -0,0 +1,52 @@
+const zlib = require('zlib');
+const { Compilation, sources } = require('webpack');
+
+const PLUGIN_NAME = 'PrecompressPlugin';
+
+/**
+ * Emits a Brotli (.br) and a gzip (.gz) variant next to the text assets, with the best compression levels, so that the
+ * server sends them as they are instead of compressing each response.
+ * Variants smaller than minRatio of the asset are only emitted, as others are not worth decompressing.
+ */
+class PrecompressPlugin {
+  constructor({ test = /^(app|content)\/.*\.(js|css|json|svg)$/, threshold = 1024, minRatio = 0.8 } = {}) {
+    this.test = test;
+    this.threshold = threshold;
+    this.minRatio = minRatio;
+  }
+
+  apply(compiler) {
+    compiler.hooks.thisCompilation.tap(PLUGIN_NAME, compilation => {
+      compilation.hooks.processAssets.tap({ name: PLUGIN_NAME, stage: Compilation.PROCESS_ASSETS_STAGE_OPTIMIZE_TRANSFER }, assets => {
+        Object.keys(assets)
+          .filter(name => this.test.test(name))
+          .forEach(name => {
+            const content = assets[name].buffer();
+            if (content.length < this.threshold) {
+              return;
+            }
+            this.emit(compilation, `${name}.br`, content, brotli(content));
+            this.emit(compilation, `${name}.gz`, content, zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }));
+          });
+      });
+    });
+  }
+
+  emit(compilation, name, content, compressed) {
+    if (compressed.length <= content.length * this.minRatio) {
+      compilation.emitAsset(name, new sources.RawSource(compressed));
+    }
+  }
+}
+
+function brotli(content) {
+  return zlib.brotliCompressSync(content, {
+    params: {
+      [zlib.constants.BROTLI_PARAM_MODE]: zlib.constants.BROTLI_MODE_TEXT,
+      [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+      [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+    },
+  });
+}
+
+module.exports = PrecompressPlugin;
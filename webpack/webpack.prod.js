@@ -6,6 +6,7 @@ const TerserPlugin = require('terser-webpack-plugin');
 const OptimizeCSSAssetsPlugin = require('optimize-css-assets-webpack-plugin');
 const sass = require('sass');
 
+const PrecompressPlugin = require('./precompress-plugin.js');
 const utils = require('./utils.js');
 const commonConfig = require('./webpack.common.js');
 
@@ -19,8 +20,9 @@ module.exports = webpackMerge(commonConfig({ env: ENV }), {
   },
   output: {
     path: utils.root('target/classes/static/'),
-    filename: 'app/[name].[hash].bundle.js',
-    chunkFilename: 'app/[name].[hash].chunk.js',
+    // Content hashes, so that the StaticResourcesWebConfiguration can serve them as immutable
+    filename: 'app/[name].[contenthash].bundle.js',
+    chunkFilename: 'app/[name].[contenthash].chunk.js',
   },
   module: {
     rules: [
@@ -83,17 +85,18 @@ module.exports = webpackMerge(commonConfig({ env: ENV }), {
   plugins: [
     new MiniCssExtractPlugin({
       // Options similar to the same options in webpackOptions.output
-      filename: 'content/[name].[hash].css',
-      chunkFilename: 'content/[name].[hash].css',
+      filename: 'content/[name].[contenthash].css',
+      chunkFilename: 'content/[name].[contenthash].css',
     }),
     new webpack.LoaderOptionsPlugin({
       minimize: true,
       debug: false,
     }),
+    new PrecompressPlugin(),
     new WorkboxPlugin.GenerateSW({
       clientsClaim: true,
       skipWaiting: true,
-      exclude: [/swagger-ui/],
+      exclude: [/swagger-ui/, /\.(br|gz)$/],
     }),
   ],
 });